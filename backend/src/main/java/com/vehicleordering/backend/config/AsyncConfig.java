@@ -0,0 +1,12 @@
+package com.vehicleordering.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async methods run on Boot's applicationTaskExecutor: a bounded thread pool (spring.task.execution.pool.*),
+// or one virtual thread per task capped by spring.task.execution.simple.concurrency-limit when
+// spring.threads.virtual.enabled=true.
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -1,14 +1,18 @@
 package com.vehicleordering.backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
 import software.amazon.awssdk.services.lambda.LambdaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.time.Duration;
+
 @Configuration
 public class AwsConfig {
 
@@ -21,6 +25,7 @@ public class AwsConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "aws.secretsmanager.stub.enabled", havingValue = "false", matchIfMissing = true)
     public SecretsManagerClient secretsManagerClient() {
         return SecretsManagerClient.builder()
                 .region(awsRegion())
@@ -29,6 +34,7 @@ public class AwsConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "aws.s3.stub.enabled", havingValue = "false", matchIfMissing = true)
     public S3Client s3Client() {
         return S3Client.builder()
                 .region(awsRegion())
@@ -36,11 +42,47 @@ public class AwsConfig {
                 .build();
     }
 
+    // Nothing on the order path uses the synchronous client; it is left out entirely when Lambda is stubbed
     @Bean
+    @ConditionalOnProperty(name = "aws.lambda.stub.enabled", havingValue = "false", matchIfMissing = true)
     public LambdaClient lambdaClient() {
         return LambdaClient.builder()
                 .region(awsRegion())
                 .credentialsProvider(DefaultCredentialsProvider.create())
                 .build();
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.lambda.stub.enabled", havingValue = "false", matchIfMissing = true)
+    public LambdaAsyncClient lambdaAsyncClient(@Value("${aws.lambda.api-call-timeout:10s}") Duration apiCallTimeout) {
+        // Bounds how long a sent invocation can stay outstanding; the outbox holds its lease until then
+        return LambdaAsyncClient.builder()
+                .region(awsRegion())
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(override -> override.apiCallTimeout(apiCallTimeout))
+                .build();
+    }
+
+    // Offline stand-ins for throughput testing without AWS; the local-perf profile turns all of them on
+    @Bean
+    @ConditionalOnProperty(name = "aws.secretsmanager.stub.enabled", havingValue = "true")
+    public SecretsManagerClient localSecretsManagerClient(
+            @Value("${aws.secretsmanager.stub.latency:20ms}") Duration latency,
+            @Value("${aws.secretsmanager.stub.failure-rate:0}") double failureRate) {
+        return new LocalSecretsManagerClient(latency, failureRate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.s3.stub.enabled", havingValue = "true")
+    public S3Client localS3Client(@Value("${aws.s3.stub.latency:50ms}") Duration latency,
+                                  @Value("${aws.s3.stub.failure-rate:0}") double failureRate) {
+        return new LocalS3Client(latency, failureRate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.lambda.stub.enabled", havingValue = "true")
+    public LambdaAsyncClient localLambdaAsyncClient(@Value("${aws.lambda.stub.latency:50ms}") Duration latency,
+                                                    @Value("${aws.lambda.stub.failure-rate:0}") double failureRate) {
+        return new LocalLambdaAsyncClient(latency, failureRate);
+    }
 }
@@ -1,5 +1,11 @@
 package com.vehicleordering.backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehicleordering.backend.service.OrderPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,36 +14,90 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Component
 public class CustomJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
     private static final String GROUPS_CLAIM = "groups";
     private static final String ROLE_PREFIX = "ROLE_";
+    private static final List<GrantedAuthority> DEFAULT_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
+    // Groups claim exactly as sent -> authorities. Lookups use the claim list itself, so a hit allocates nothing.
+    private final Cache<List<String>, List<GrantedAuthority>> authoritiesByClaim;
+    // Normalized group set -> authorities, so differently ordered or cased claims share one instance
+    private final Cache<Set<String>, List<GrantedAuthority>> authoritiesByGroups;
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    public CustomJwtAuthenticationConverter(MeterRegistry meterRegistry,
+                                            OrderPipelineMetrics pipelineMetrics,
+                                            @Value("${security.jwt.authority-cache.max-size:1000}") long maxSize) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.authoritiesByClaim = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.authoritiesByGroups = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, authoritiesByClaim, "jwt.authorities");
+    }
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
+        long startNanos = System.nanoTime();
         Collection<GrantedAuthority> authorities = extractAuthorities(jwt);
-        return new JwtAuthenticationToken(jwt, authorities);
+        JwtAuthenticationToken token = new JwtAuthenticationToken(jwt, authorities);
+        pipelineMetrics.record(OrderPipelineMetrics.Stage.JWT, startNanos);
+        return token;
     }
 
     private Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
         // Extract groups from Okta JWT token
         Object groupsClaim = jwt.getClaims().get(GROUPS_CLAIM);
 
+        if (groupsClaim instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<String> groups = (List<String>) groupsClaim;
+            List<GrantedAuthority> authorities = authoritiesByClaim.getIfPresent(groups);
+            if (authorities == null) {
+                authorities = authoritiesByGroups.get(normalize(groups), CustomJwtAuthenticationConverter::toAuthorities);
+                authoritiesByClaim.put(List.copyOf(groups), authorities);
+            }
+            return authorities;
+        }
+
         if (groupsClaim instanceof Collection) {
             @SuppressWarnings("unchecked")
             Collection<String> groups = (Collection<String>) groupsClaim;
-            return groups.stream()
-                    .map(group -> new SimpleGrantedAuthority(ROLE_PREFIX + group.toUpperCase()))
-                    .collect(Collectors.toList());
+            return authoritiesByGroups.get(normalize(groups), CustomJwtAuthenticationConverter::toAuthorities);
         }
 
         // Default role if no groups found
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return DEFAULT_AUTHORITIES;
+    }
+
+    private static Set<String> normalize(Collection<String> groups) {
+        Set<String> normalized = new TreeSet<>();
+        for (String group : groups) {
+            normalized.add(group.toUpperCase(Locale.ROOT));
+        }
+        return Collections.unmodifiableSet(normalized);
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Set<String> groups) {
+        List<GrantedAuthority> authorities = new ArrayList<>(groups.size());
+        for (String group : groups) {
+            authorities.add(new SimpleGrantedAuthority(ROLE_PREFIX + group));
+        }
+        return Collections.unmodifiableList(authorities);
     }
 }
@@ -0,0 +1,86 @@
+package com.vehicleordering.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Accepts invocations after a fixed delay without calling AWS, failing a configurable fraction of them with a 503.
+// Enabled with aws.lambda.stub.enabled=true.
+public class LocalLambdaAsyncClient implements LambdaAsyncClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalLambdaAsyncClient.class);
+
+    private final Duration latency;
+    private final double failureRate;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public LocalLambdaAsyncClient(Duration latency) {
+        this(latency, 0.0);
+    }
+
+    public LocalLambdaAsyncClient(Duration latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "local-lambda");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.warn("Using local Lambda stub with {} latency and {} failure rate; no functions will be invoked",
+                latency, failureRate);
+    }
+
+    @Override
+    public CompletableFuture<InvokeResponse> invoke(InvokeRequest invokeRequest) {
+        invocations.increment();
+
+        boolean fail = failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+
+        CompletableFuture<InvokeResponse> response = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            if (fail) {
+                failures.increment();
+                response.completeExceptionally(AwsServiceException.builder()
+                        .statusCode(503)
+                        .message("Simulated Lambda failure")
+                        .build());
+            } else {
+                response.complete(InvokeResponse.builder()
+                        .statusCode(202)
+                        .build());
+            }
+        }, latency.toNanos(), TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    public long getInvocationCount() {
+        return invocations.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
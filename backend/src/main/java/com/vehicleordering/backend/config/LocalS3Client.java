@@ -0,0 +1,167 @@
+package com.vehicleordering.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Blocks each call for a fixed delay without calling AWS, so callers see the same blocking profile as real
+// uploads, and fails a configurable fraction of calls with a 503. Payloads are discarded; only the size of each
+// stored object is kept. Enabled with aws.s3.stub.enabled=true.
+public class LocalS3Client implements S3Client {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalS3Client.class);
+
+    private final Duration latency;
+    private final double failureRate;
+    private final Map<String, Long> objectSizes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> uploadSizes = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+
+    public LocalS3Client(Duration latency) {
+        this(latency, 0.0);
+    }
+
+    public LocalS3Client(Duration latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        logger.warn("Using local S3 stub with {} latency and {} failure rate; object contents are not kept",
+                latency, failureRate);
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest putObjectRequest, RequestBody requestBody) {
+        long size = drain(requestBody);
+        simulateLatency();
+        objectSizes.put(putObjectRequest.key(), size);
+        return PutObjectResponse.builder()
+                .eTag(UUID.randomUUID().toString())
+                .build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+        simulateLatency();
+        String uploadId = UUID.randomUUID().toString();
+        uploadSizes.put(uploadId, new LongAdder());
+        return CreateMultipartUploadResponse.builder()
+                .bucket(request.bucket())
+                .key(request.key())
+                .uploadId(uploadId)
+                .build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody requestBody) {
+        long size = drain(requestBody);
+        simulateLatency();
+        uploadSizes.computeIfAbsent(request.uploadId(), id -> new LongAdder()).add(size);
+        return UploadPartResponse.builder()
+                .eTag(UUID.randomUUID().toString())
+                .build();
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+        simulateLatency();
+        LongAdder size = uploadSizes.remove(request.uploadId());
+        objectSizes.put(request.key(), size != null ? size.sum() : 0L);
+        return CompleteMultipartUploadResponse.builder()
+                .bucket(request.bucket())
+                .key(request.key())
+                .build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+        simulateLatency();
+        uploadSizes.remove(request.uploadId());
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+        simulateLatency();
+        objectSizes.remove(request.key());
+        return DeleteObjectResponse.builder().build();
+    }
+
+    public Map<String, Long> getObjectSizes() {
+        return Map.copyOf(objectSizes);
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private long drain(RequestBody requestBody) {
+        try (InputStream inputStream = requestBody.contentStreamProvider().newStream()) {
+            long size = inputStream.transferTo(OutputStream.nullOutputStream());
+            bytesReceived.add(size);
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void simulateLatency() {
+        requests.increment();
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SdkClientException.create("Interrupted while simulating S3 latency", e);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failures.increment();
+            throw AwsServiceException.builder()
+                    .statusCode(503)
+                    .message("Simulated S3 failure")
+                    .build();
+        }
+    }
+}
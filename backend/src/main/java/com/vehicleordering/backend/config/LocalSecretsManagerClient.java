@@ -0,0 +1,59 @@
+package com.vehicleordering.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
+import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Answers every secret lookup with an empty JSON object after a fixed delay, failing a configurable fraction
+// with a 503. Enabled with aws.secretsmanager.stub.enabled=true.
+public class LocalSecretsManagerClient implements SecretsManagerClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSecretsManagerClient.class);
+
+    private final Duration latency;
+    private final double failureRate;
+
+    public LocalSecretsManagerClient(Duration latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        logger.warn("Using local Secrets Manager stub with {} latency and {} failure rate", latency, failureRate);
+    }
+
+    @Override
+    public GetSecretValueResponse getSecretValue(GetSecretValueRequest request) {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SdkClientException.create("Interrupted while simulating Secrets Manager latency", e);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw AwsServiceException.builder()
+                    .statusCode(503)
+                    .message("Simulated Secrets Manager failure")
+                    .build();
+        }
+        return GetSecretValueResponse.builder()
+                .name(request.secretId())
+                .secretString("{}")
+                .createdDate(Instant.now())
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,76 @@
+package com.vehicleordering.backend.config;
+
+import com.vehicleordering.backend.service.OrderAdmissionControl;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Runs after authentication and before the controller, so a rejected request costs no database work.
+// AdmissionRejectedException is turned into 429/503 by GlobalExceptionHandler.
+@Component
+public class OrderAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = OrderAdmissionInterceptor.class.getName() + ".permit";
+
+    private final OrderAdmissionControl admissionControl;
+
+    public OrderAdmissionInterceptor(OrderAdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch resumes a request that was already admitted
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionControl.admit(subject(), budget(request)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        OrderAdmissionControl.Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.releaseUnsampled();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        OrderAdmissionControl.Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.release(ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    // The caller is the token's sub claim. Nothing from the request itself is used: a parameter would let a
+    // caller spread its requests over other customers' budgets, or spend theirs.
+    private static String subject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwt) {
+            return jwt.getToken().getSubject();
+        }
+        return null;
+    }
+
+    private static OrderAdmissionControl.Budget budget(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method)
+                ? OrderAdmissionControl.Budget.READ
+                : OrderAdmissionControl.Budget.WRITE;
+    }
+
+    private static OrderAdmissionControl.Permit takePermit(HttpServletRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return (OrderAdmissionControl.Permit) permit;
+    }
+}
@@ -0,0 +1,82 @@
+package com.vehicleordering.backend.config;
+
+import com.vehicleordering.backend.entity.ArchivedOrder;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Order and outbox event ids used to come from AUTO_INCREMENT columns; they now come from order_id_seq and
+// order_outbox_id_seq, which a fresh schema starts at 1. Before the first order is inserted, each sequence
+// is moved past the highest id already stored in its tables (orders ids also live on in the archive). A
+// sequence only ever moves forward, so a node restarting later never hands out a block another node still
+// holds. After an upgrade, start one node first so two nodes don't both restart a sequence at the same value.
+@Component
+public class OrderIdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdSequenceInitializer.class);
+
+    private record Sequence(String name, int allocationSize, List<Class<?>> entities) {
+    }
+
+    private static final List<Sequence> SEQUENCES = List.of(
+            new Sequence("order_id_seq", Order.ID_ALLOCATION_SIZE, List.of(Order.class, ArchivedOrder.class)),
+            new Sequence("order_outbox_id_seq", OrderOutboxEvent.ID_ALLOCATION_SIZE, List.of(OrderOutboxEvent.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public OrderIdSequenceInitializer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    // Runs before listener containers start, so no id has been allocated yet
+    @PostConstruct
+    public void initialize() {
+        SEQUENCES.forEach(this::initialize);
+    }
+
+    private void initialize(Sequence sequence) {
+        long maxId = sequence.entities().stream().mapToLong(this::maxId).max().orElse(0);
+        if (maxId == 0) {
+            return;
+        }
+
+        // The pooled optimizer treats a fetched value v as the top of the block (v - allocation size, v]
+        long required = maxId + sequence.allocationSize() + 1;
+        SequenceSupport sequences = dialect.getSequenceSupport();
+        if (sequences.supportsSequences()) {
+            // Reading the next value uses up one block, which is harmless
+            Long next = jdbcTemplate.queryForObject(sequences.getSequenceNextValString(sequence.name()), Long.class);
+            if (next != null && next < required) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence.name() + " RESTART WITH " + required);
+                logger.info("Moved {} from {} to {}, past the highest stored id", sequence.name(), next, required);
+            }
+        } else {
+            // One-row table with a next_val column, as Hibernate lays it out for databases without sequences
+            int updated = jdbcTemplate.update("UPDATE " + sequence.name() + " SET next_val = ? WHERE next_val < ?",
+                    required, required);
+            if (updated > 0) {
+                logger.info("Moved {} to {}, past the highest stored id", sequence.name(), required);
+            }
+        }
+    }
+
+    private long maxId(Class<?> entity) {
+        String table = entity.getAnnotation(Table.class).name();
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.vehicleordering.backend.config;
+
+import com.vehicleordering.backend.entity.ArchivedOrder;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Checks that every index declared on the order tables exists in the live schema (with any name), since
+// ddl-auto=validate and migrations do not. orders.schema.index-check: WARN (default), FAIL or OFF.
+// Also checks that ArchivedOrderRepository.ORDER_COLUMNS names exactly the columns of both order entities:
+// a column missing there would be dropped silently on archival, so in archival mode that always fails.
+@Component
+public class OrderIndexValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIndexValidator.class);
+    private static final String ARCHIVED_AT_COLUMN = "archived_at";
+
+    public enum Mode {
+        WARN,
+        FAIL,
+        OFF
+    }
+
+    private final DataSource dataSource;
+    private final Mode mode;
+    private final MappingMetamodel metamodel;
+    private final boolean archiveEnabled;
+
+    public OrderIndexValidator(DataSource dataSource, @Value("${orders.schema.index-check:WARN}") Mode mode,
+                               EntityManagerFactory entityManagerFactory,
+                               @Value("${orders.archive.enabled:false}") boolean archiveEnabled) {
+        this.dataSource = dataSource;
+        this.mode = mode;
+        this.metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    // Before the archiver's first run, so a drifted column list never copies a row
+    @PostConstruct
+    public void validateArchiveColumns() {
+        Set<String> archived = Arrays.stream(ArchivedOrderRepository.ORDER_COLUMNS.split(","))
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<String> problems = new ArrayList<>();
+        Set<String> orderColumns = entityColumns(Order.class);
+        if (!orderColumns.equals(archived)) {
+            problems.add("orders has " + orderColumns);
+        }
+        Set<String> archiveColumns = entityColumns(ArchivedOrder.class);
+        archiveColumns.remove(ARCHIVED_AT_COLUMN);
+        if (!archiveColumns.equals(archived)) {
+            problems.add("orders_archive has " + archiveColumns + " besides " + ARCHIVED_AT_COLUMN);
+        }
+
+        if (problems.isEmpty()) {
+            return;
+        }
+        String message = "ArchivedOrderRepository.ORDER_COLUMNS " + archived + " does not match the entities: " + problems;
+        if (archiveEnabled) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Class<?> entity : List.of(Order.class, ArchivedOrder.class)) {
+                Table table = entity.getAnnotation(Table.class);
+                List<List<String>> existing = indexColumns(metaData, table.name());
+                for (Index index : table.indexes()) {
+                    List<String> columns = Arrays.stream(index.columnList().split(","))
+                            .map(column -> toPhysicalName(column.trim()))
+                            .toList();
+                    if (existing.stream().noneMatch(actual -> startsWith(actual, columns))) {
+                        missing.add(table.name() + columns);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not read index metadata for the order tables: {}", e.getMessage());
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            logger.info("Order table indexes validated");
+        } else if (mode == Mode.FAIL) {
+            throw new IllegalStateException("Missing indexes on order tables: " + missing);
+        } else {
+            logger.warn("Missing indexes on order tables, queries on these columns will scan: {}", missing);
+        }
+    }
+
+    // Column lists of every index on the table, in index order. Identifier case differs between databases.
+    private static List<List<String>> indexColumns(DatabaseMetaData metaData, String table) throws SQLException {
+        for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            Map<String, Map<Short, String>> indexes = new TreeMap<>();
+            try (ResultSet rows = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (rows.next()) {
+                    String indexName = rows.getString("INDEX_NAME");
+                    String column = rows.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        indexes.computeIfAbsent(indexName, key -> new TreeMap<>())
+                                .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (!indexes.isEmpty()) {
+                return indexes.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+            }
+        }
+        return List.of();
+    }
+
+    // Columns of the entity's own table; element collections live in their own tables and are copied separately
+    private Set<String> entityColumns(Class<?> entity) {
+        Set<String> columns = new TreeSet<>();
+        EntityPersister persister = metamodel.getEntityDescriptor(entity);
+        persister.getIdentifierMapping().forEachSelectable((index, selectable) ->
+                columns.add(selectable.getSelectionExpression().toLowerCase(Locale.ROOT)));
+        persister.forEachAttributeMapping(attribute -> {
+            if (attribute.isPluralAttributeMapping()) {
+                return;
+            }
+            attribute.forEachSelectable((index, selectable) ->
+                    columns.add(selectable.getSelectionExpression().toLowerCase(Locale.ROOT)));
+        });
+        return columns;
+    }
+
+    private static boolean startsWith(List<String> actual, List<String> expected) {
+        return actual.size() >= expected.size() && actual.subList(0, expected.size()).equals(expected);
+    }
+
+    // Mirrors Spring Boot's default physical naming: camelCase -> snake_case
+    private static String toPhysicalName(String logicalName) {
+        return logicalName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.vehicleordering.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces Boot's single DataSource with primary + replicas behind ReplicaRoutingDataSource. The primary is
+// still configured through spring.datasource.*; replicas share its driver and take their own URLs and pool size.
+@Configuration
+@ConditionalOnProperty(name = "orders.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${orders.datasource.replica.urls}") List<String> urls,
+                                 @Value("${orders.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${orders.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${orders.datasource.replica.maximum-pool-size:20}") int maximumPoolSize,
+                                 @Value("${orders.datasource.replica.max-lag:2s}") Duration maxLag) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("orders.datasource.replica.urls must list at least one replica");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaSet(primaryDataSource, replicas, maxLag, meterRegistry);
+    }
+
+    // Lazy, so the routing key is resolved at the first statement rather than when the transaction begins
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primaryDataSource, replicaSet, meterRegistry);
+        router.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(router);
+    }
+}
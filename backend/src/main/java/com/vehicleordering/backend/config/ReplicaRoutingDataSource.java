@@ -0,0 +1,102 @@
+package com.vehicleordering.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Sends reads explicitly marked replica-eligible (onReplica, inside a read-only transaction) to a replica and
+// everything else to the primary. Being read-only is not enough: repository methods are read-only by default,
+// and most reads must see what was just committed. Must sit behind a LazyConnectionDataSourceProxy: the target
+// is then chosen when the first statement runs, by which time both flags are known.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> REPLICA_ELIGIBLE = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+    private final ReplicaSet replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Routing decisions by reason
+    private final Counter readWriteCounter;
+    private final Counter primaryOnlyCounter;
+    private final Counter laggingCounter;
+    private final Counter replicaCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicaKeys = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.readWriteCounter = decisionCounter(meterRegistry, PRIMARY, "read-write");
+        this.primaryOnlyCounter = decisionCounter(meterRegistry, PRIMARY, "not-replica-eligible");
+        this.laggingCounter = decisionCounter(meterRegistry, PRIMARY, "replicas-lagging");
+        this.replicaCounter = decisionCounter(meterRegistry, "replica", "read-only");
+    }
+
+    // Lets connections first used by this read come from a replica, if its transaction is read-only
+    public static <T> T onReplica(Supplier<T> read) {
+        Boolean previous = REPLICA_ELIGIBLE.get();
+        REPLICA_ELIGIBLE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                REPLICA_ELIGIBLE.remove();
+            } else {
+                REPLICA_ELIGIBLE.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWriteCounter.increment();
+            return PRIMARY;
+        }
+        if (REPLICA_ELIGIBLE.get() == null) {
+            primaryOnlyCounter.increment();
+            return PRIMARY;
+        }
+
+        // Round robin over the replicas whose last heartbeat is within the allowed lag
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size());
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            int index = (start + i) % replicaKeys.size();
+            if (replicas.isUsable(index)) {
+                replicaCounter.increment();
+                return replicaKeys.get(index);
+            }
+        }
+        laggingCounter.increment();
+        return PRIMARY;
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections routed to the primary or a replica, by reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
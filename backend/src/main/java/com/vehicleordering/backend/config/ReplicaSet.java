@@ -0,0 +1,126 @@
+package com.vehicleordering.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The read replicas and their lag. Lag is measured with a heartbeat row: the primary stamps it every interval
+// and each replica's lag is the age of the stamp it has replicated, which works with any replication that
+// carries the row and needs no replication-status privileges. A replica is only read from while its lag is
+// within maxLag. A measurement only bounds the lag at the moment it was taken, so its age counts against
+// maxLag too: if the heartbeat stops running, replicas drop out of rotation instead of staying in on an old
+// reading.
+public class ReplicaSet implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSet.class);
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final JdbcTemplate primary;
+    private final List<HikariDataSource> dataSources;
+    private final List<JdbcTemplate> replicas;
+    private final long maxLagMillis;
+    // Last measured lag per replica in milliseconds; UNKNOWN until the first successful read
+    private final AtomicLongArray lagMillis;
+    // When each lag was measured, System.nanoTime()
+    private final AtomicLongArray measuredAtNanos;
+
+    public ReplicaSet(DataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                      MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.dataSources = List.copyOf(replicas);
+        this.replicas = new ArrayList<>(replicas.size());
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagMillis = new AtomicLongArray(replicas.size());
+        this.measuredAtNanos = new AtomicLongArray(replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+            JdbcTemplate replica = new JdbcTemplate(replicas.get(i));
+            replica.setQueryTimeout(2);
+            this.replicas.add(replica);
+            lagMillis.set(i, UNKNOWN);
+
+            int index = i;
+            Gauge.builder("datasource.replica.lag", () -> lagSeconds(index))
+                    .description("Age of the heartbeat last replicated to the replica plus the age of that reading; NaN while unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", "replica-" + i)
+                    .register(meterRegistry);
+        }
+
+        this.primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at_ms BIGINT NOT NULL)");
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int replica) {
+        return dataSources.get(replica);
+    }
+
+    public boolean isUsable(int replica) {
+        return currentLagMillis(replica) <= maxLagMillis;
+    }
+
+    // The measured lag plus the time since it was measured: the most the replica can be behind right now
+    private long currentLagMillis(int replica) {
+        long lag = lagMillis.get(replica);
+        if (lag == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return lag + (System.nanoTime() - measuredAtNanos.get(replica)) / 1_000_000;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.datasource.replica.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at_ms = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at_ms) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            // Another instance inserted the row first, or the primary is down; the next beat retries
+            logger.debug("Could not write replica heartbeat: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag;
+            try {
+                List<Long> beats = replicas.get(i).queryForList(
+                        "SELECT beat_at_ms FROM replica_heartbeat WHERE id = 1", Long.class);
+                lag = beats.isEmpty() ? UNKNOWN : Math.max(0, System.currentTimeMillis() - beats.get(0));
+            } catch (DataAccessException e) {
+                lag = UNKNOWN;
+            }
+
+            boolean wasUsable = isUsable(i);
+            measuredAtNanos.set(i, System.nanoTime());
+            lagMillis.set(i, lag);
+            if (wasUsable != lag <= maxLagMillis) {
+                logger.warn("Replica {} {} (lag {})", i, wasUsable ? "taken out of rotation" : "back in rotation",
+                        lag == UNKNOWN ? "unknown" : lag + "ms");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    private double lagSeconds(int replica) {
+        long lag = currentLagMillis(replica);
+        return lag == UNKNOWN ? Double.NaN : lag / 1000.0;
+    }
+}
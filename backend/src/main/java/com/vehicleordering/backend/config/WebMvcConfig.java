@@ -0,0 +1,29 @@
+package com.vehicleordering.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final OrderAdmissionInterceptor admissionInterceptor;
+    private final boolean admissionEnabled;
+
+    public WebMvcConfig(OrderAdmissionInterceptor admissionInterceptor,
+                        @Value("${orders.admission.enabled:true}") boolean admissionEnabled) {
+        this.admissionInterceptor = admissionInterceptor;
+        this.admissionEnabled = admissionEnabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (admissionEnabled) {
+            // Status streams are bounded by orders.stream.max-subscribers instead; a reconnect costs no budget
+            registry.addInterceptor(admissionInterceptor)
+                    .addPathPatterns("/api/orders/**")
+                    .excludePathPatterns("/api/orders/events", "/api/orders/*/events");
+        }
+    }
+}
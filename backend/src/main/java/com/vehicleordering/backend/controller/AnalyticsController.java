@@ -0,0 +1,68 @@
+package com.vehicleordering.backend.controller;
+
+import com.vehicleordering.backend.dto.RollupReport;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_BACKFILL_DAYS = 366;
+
+    private final OrderRollupService orderRollupService;
+
+    public AnalyticsController(OrderRollupService orderRollupService) {
+        this.orderRollupService = orderRollupService;
+    }
+
+    // Served from the rollup tables; cancelled orders are left out unless statuses are given explicitly
+    @GetMapping("/rollups")
+    public RollupReport getRollups(@RequestParam OrderRollupService.Dimension groupBy,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(required = false) Set<Order.OrderStatus> status) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        Set<Order.OrderStatus> statuses = status == null || status.isEmpty()
+                ? EnumSet.complementOf(EnumSet.of(Order.OrderStatus.CANCELLED))
+                : EnumSet.copyOf(status);
+        return orderRollupService.query(groupBy, from, to, statuses);
+    }
+
+    // Each day is rebuilt in its own transaction; returns the number of orders counted per day
+    @PostMapping("/rollups/backfill")
+    public Map<LocalDate, Integer> backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > MAX_BACKFILL_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Backfill range must cover 1 to " + MAX_BACKFILL_DAYS + " days");
+        }
+        if (!to.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Backfill range must end before today");
+        }
+
+        Map<LocalDate, Integer> counted = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            counted.put(day, orderRollupService.rebuildDay(day));
+        }
+        return counted;
+    }
+}
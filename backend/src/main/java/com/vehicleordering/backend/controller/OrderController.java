@@ -0,0 +1,161 @@
+package com.vehicleordering.backend.controller;
+
+import com.vehicleordering.backend.dto.OrderPage;
+import com.vehicleordering.backend.dto.OrderStatusEvent;
+import com.vehicleordering.backend.dto.OrderSummary;
+import com.vehicleordering.backend.dto.StatusUpdateRequest;
+import com.vehicleordering.backend.dto.StatusUpdateResult;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderExportService;
+import com.vehicleordering.backend.service.OrderService;
+import com.vehicleordering.backend.service.OrderStatusBroadcaster;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String STAFF_ROLE = "ROLE_STAFF";
+
+    private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderStatusBroadcaster statusBroadcaster;
+
+    public OrderController(OrderService orderService, OrderExportService orderExportService,
+                           OrderStatusBroadcaster statusBroadcaster) {
+        this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.statusBroadcaster = statusBroadcaster;
+    }
+
+    @GetMapping
+    public OrderPage<Order> getAllOrders(@RequestParam(defaultValue = "0") long after,
+                                         @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getAllOrders(after, limit);
+    }
+
+    @GetMapping("/by-email")
+    public OrderPage<Order> getOrdersByEmail(@RequestParam String email,
+                                             @RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrdersByEmail(email, after, limit);
+    }
+
+    @GetMapping("/by-status/{status}")
+    public OrderPage<Order> getOrdersByStatus(@PathVariable Order.OrderStatus status,
+                                              @RequestParam(defaultValue = "0") long after,
+                                              @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrdersByStatus(status, after, limit);
+    }
+
+    @GetMapping("/by-date")
+    public OrderPage<Order> getOrdersBetweenDates(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrdersBetweenDates(startDate, endDate, after, limit);
+    }
+
+    @GetMapping("/summaries")
+    public OrderPage<OrderSummary> getOrderSummaries(@RequestParam(defaultValue = "0") long after,
+                                                     @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrderSummaries(after, limit);
+    }
+
+    @GetMapping("/summaries/by-email")
+    public OrderPage<OrderSummary> getOrderSummariesByEmail(@RequestParam String email,
+                                                            @RequestParam(defaultValue = "0") long after,
+                                                            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrderSummariesByEmail(email, after, limit);
+    }
+
+    @GetMapping("/summaries/by-status/{status}")
+    public OrderPage<OrderSummary> getOrderSummariesByStatus(@PathVariable Order.OrderStatus status,
+                                                             @RequestParam(defaultValue = "0") long after,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return orderService.getOrderSummariesByStatus(status, after, limit);
+    }
+
+    @GetMapping("/status-counts")
+    public Map<Order.OrderStatus, Long> getStatusCounts() {
+        return orderService.getStatusCounts();
+    }
+
+    @PatchMapping("/status")
+    public List<StatusUpdateResult> updateOrderStatuses(@Valid @RequestBody StatusUpdateRequest request) {
+        return orderService.updateOrderStatuses(request.orderIds(), request.status());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        StreamingResponseBody body = outputStream ->
+                orderExportService.exportOrders(email, status, startDate, endDate, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Replaces polling: the current status is sent on connect, then every change as it commits. Only the
+    // order's owner or staff may subscribe; the check runs on the snapshot, before anything is sent. An order
+    // not stored yet streams from its creation, so a customer can subscribe right after submitting it.
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(@PathVariable String orderId, JwtAuthenticationToken authentication) {
+        return statusBroadcaster.subscribeToOrder(orderId, () -> orderService.getOrderFromPrimary(orderId)
+                .map(order -> {
+                    if (!isStaff(authentication) && !isOwnEmail(authentication, order.getEmail())) {
+                        throw new AccessDeniedException("Only staff may stream another customer's order");
+                    }
+                    return new OrderStatusEvent(order.getOrderId(), order.getStatus(), null, order.getUpdatedAt());
+                })
+                .orElse(null));
+    }
+
+    // A customer streams their own orders, taken from the token's email claim; only staff may name another email
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatusByEmail(@RequestParam(required = false) String email,
+                                               JwtAuthenticationToken authentication) {
+        String streamed = email != null ? email : authentication.getToken().getClaimAsString(EMAIL_CLAIM);
+        if (streamed == null) {
+            throw new AccessDeniedException("The token carries no email to stream orders for");
+        }
+        if (!isStaff(authentication) && !isOwnEmail(authentication, streamed)) {
+            throw new AccessDeniedException("Only staff may stream another customer's orders");
+        }
+        return statusBroadcaster.subscribeToEmail(streamed);
+    }
+
+    private static boolean isStaff(JwtAuthenticationToken authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> STAFF_ROLE.equals(authority.getAuthority()));
+    }
+
+    private static boolean isOwnEmail(JwtAuthenticationToken authentication, String email) {
+        return email != null && email.equalsIgnoreCase(authentication.getToken().getClaimAsString(EMAIL_CLAIM));
+    }
+}
@@ -0,0 +1,75 @@
+package com.vehicleordering.backend.controller;
+
+import com.vehicleordering.backend.service.OrderPipelineMetrics;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GET /actuator/pipeline: latency per stage and a waterfall for the slowest recently traced orders. Count and
+// mean per stage cover everything since startup; max and percentiles only the last couple of minutes, the
+// window over which Micrometer decays distribution statistics.
+@Component
+@Endpoint(id = "pipeline")
+public class PipelineEndpoint {
+
+    private static final int DEFAULT_SLOWEST_ORDERS = 20;
+
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    public PipelineEndpoint(OrderPipelineMetrics pipelineMetrics) {
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    public record StageStats(long count, double meanMs, double maxMs, Map<String, Double> percentilesMs) {
+    }
+
+    public record StageStep(String stage, long offsetMs, double durationMs) {
+    }
+
+    public record OrderWaterfall(String orderId, Instant startedAt, long totalMs, List<StageStep> stages) {
+    }
+
+    public record PipelineBreakdown(Map<String, StageStats> stages, List<OrderWaterfall> slowestOrders) {
+    }
+
+    @ReadOperation
+    public PipelineBreakdown breakdown(@Nullable Integer limit) {
+        Map<String, StageStats> stages = new LinkedHashMap<>();
+        for (OrderPipelineMetrics.Stage stage : OrderPipelineMetrics.Stage.values()) {
+            HistogramSnapshot snapshot = pipelineMetrics.getTimer(stage).takeSnapshot();
+
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                percentiles.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            stages.put(stage.getTag(), new StageStats(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS), percentiles));
+        }
+
+        List<OrderWaterfall> slowest = pipelineMetrics.slowestOrders(limit != null ? limit : DEFAULT_SLOWEST_ORDERS)
+                .stream()
+                .map(PipelineEndpoint::toWaterfall)
+                .toList();
+
+        return new PipelineBreakdown(stages, slowest);
+    }
+
+    private static OrderWaterfall toWaterfall(OrderPipelineMetrics.OrderTrace trace) {
+        List<StageStep> steps = trace.stages().stream()
+                .map(timing -> new StageStep(timing.stage().getTag(),
+                        timing.startedAtMillis() - trace.startedAtMillis(),
+                        timing.durationNanos() / 1e6))
+                .toList();
+        return new OrderWaterfall(trace.orderId(), Instant.ofEpochMilli(trace.startedAtMillis()), trace.totalMillis(),
+                steps);
+    }
+}
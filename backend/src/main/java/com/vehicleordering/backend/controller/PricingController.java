@@ -0,0 +1,53 @@
+package com.vehicleordering.backend.controller;
+
+import com.vehicleordering.backend.dto.QuoteRequest;
+import com.vehicleordering.backend.dto.QuoteResponse;
+import com.vehicleordering.backend.service.PricingCatalog;
+import com.vehicleordering.backend.service.PricingEngine;
+import com.vehicleordering.backend.service.PricingException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing")
+public class PricingController {
+
+    private static final int MAX_BULK_QUOTES = 10_000;
+
+    private final PricingEngine pricingEngine;
+
+    public PricingController(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    @GetMapping("/quote")
+    public QuoteResponse quote(@RequestParam String model,
+                               @RequestParam(required = false) String wheels,
+                               @RequestParam(required = false) List<String> features) {
+        PricingCatalog catalog = pricingEngine.getCatalog();
+        long amount = pricingEngine.quoteCents(catalog, model, wheels, features);
+        return new QuoteResponse(catalog.getCurrency(), catalog.getVersion(), new long[] {amount});
+    }
+
+    @PostMapping("/quotes")
+    public QuoteResponse quoteAll(@RequestBody List<QuoteRequest> requests) {
+        if (requests.size() > MAX_BULK_QUOTES) {
+            throw new PricingException("At most " + MAX_BULK_QUOTES + " configurations can be quoted per request");
+        }
+
+        PricingCatalog catalog = pricingEngine.getCatalog();
+        return new QuoteResponse(catalog.getCurrency(), catalog.getVersion(), pricingEngine.quoteAllCents(catalog, requests));
+    }
+
+    @PostMapping("/catalog/reload")
+    public QuoteResponse reloadCatalog() {
+        PricingCatalog catalog = pricingEngine.reload();
+        return new QuoteResponse(catalog.getCurrency(), catalog.getVersion(), new long[0]);
+    }
+}
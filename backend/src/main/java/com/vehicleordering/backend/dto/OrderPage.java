@@ -0,0 +1,7 @@
+package com.vehicleordering.backend.dto;
+
+import java.util.List;
+
+// One keyset page; nextCursor is the id to pass as "after" for the following page, or null on the last page
+public record OrderPage<T>(List<T> items, Long nextCursor) {
+}
@@ -0,0 +1,13 @@
+package com.vehicleordering.backend.dto;
+
+import com.vehicleordering.backend.entity.Order;
+
+import java.time.LocalDateTime;
+
+// Pushed to order status stream subscribers; previousStatus is null for a newly created order or the
+// snapshot sent when a subscription opens
+public record OrderStatusEvent(String orderId,
+                               Order.OrderStatus status,
+                               Order.OrderStatus previousStatus,
+                               LocalDateTime at) {
+}
@@ -0,0 +1,17 @@
+package com.vehicleordering.backend.dto;
+
+import com.vehicleordering.backend.entity.Order;
+
+import java.time.LocalDateTime;
+
+// Read-only listing row; loaded with a JPQL constructor expression so order_features is never touched
+public record OrderSummary(Long id,
+                           String orderId,
+                           String customerName,
+                           String email,
+                           String model,
+                           String color,
+                           String wheels,
+                           Order.OrderStatus status,
+                           LocalDateTime createdAt) {
+}
@@ -0,0 +1,6 @@
+package com.vehicleordering.backend.dto;
+
+import java.util.List;
+
+public record QuoteRequest(String model, String wheels, List<String> features) {
+}
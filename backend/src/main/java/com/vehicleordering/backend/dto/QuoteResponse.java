@@ -0,0 +1,5 @@
+package com.vehicleordering.backend.dto;
+
+// Amounts are in cents, in the same order as the requested configurations
+public record QuoteResponse(String currency, long catalogVersion, long[] amounts) {
+}
@@ -0,0 +1,15 @@
+package com.vehicleordering.backend.dto;
+
+import com.vehicleordering.backend.entity.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+public record RollupReport(LocalDate from,
+                           LocalDate to,
+                           String groupBy,
+                           Set<Order.OrderStatus> statuses,
+                           String currency,
+                           List<RollupRow> rows) {
+}
@@ -0,0 +1,5 @@
+package com.vehicleordering.backend.dto;
+
+// One group of a rollup query; key is the dimension value (ISO date for DAY, "" for orders without wheels)
+public record RollupRow(String key, long orderCount, long revenueCents) {
+}
@@ -0,0 +1,13 @@
+package com.vehicleordering.backend.dto;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record StatusUpdateRequest(@NotEmpty @Size(max = OrderService.MAX_STATUS_UPDATES) List<String> orderIds,
+                                  @NotNull Order.OrderStatus status) {
+}
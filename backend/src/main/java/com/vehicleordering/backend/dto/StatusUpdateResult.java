@@ -0,0 +1,14 @@
+package com.vehicleordering.backend.dto;
+
+import com.vehicleordering.backend.entity.Order;
+
+// previousStatus is null when the order does not exist
+public record StatusUpdateResult(String orderId, Order.OrderStatus previousStatus, Outcome outcome) {
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        ILLEGAL_TRANSITION,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,96 @@
+package com.vehicleordering.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read-only copy of a finished order moved out of the hot orders table by OrderArchiveService. Rows keep
+// their original id, so keyset cursors stay valid across both tables.
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_order_id", columnList = "orderId", unique = true),
+        @Index(name = "idx_orders_archive_email_status", columnList = "email, status, id"),
+        @Index(name = "idx_orders_archive_created_at", columnList = "createdAt, id")
+})
+@Immutable
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    private String orderId;
+    private String customerName;
+    private String email;
+    private String phone;
+    private String model;
+    private String color;
+    private String wheels;
+
+    @ElementCollection
+    @BatchSize(size = 500)
+    @CollectionTable(name = "order_features_archive", joinColumns = @JoinColumn(name = "order_id"))
+    @Column(name = "feature")
+    private List<String> features;
+
+    @Column(length = 1000)
+    private String specialRequests;
+
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String pdfUrl;
+    private String paymentId;
+    private Long amountCents;
+    private LocalDateTime archivedAt;
+
+    protected ArchivedOrder() {
+    }
+
+    // Detached Order view so callers do not need to know which table an order came from
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderId(orderId);
+        order.setCustomerName(customerName);
+        order.setEmail(email);
+        order.setPhone(phone);
+        order.setModel(model);
+        order.setColor(color);
+        order.setWheels(wheels);
+        order.setFeatures(features != null ? new ArrayList<>(features) : null);
+        order.setSpecialRequests(specialRequests);
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt);
+        order.setPdfUrl(pdfUrl);
+        order.setPaymentId(paymentId);
+        order.setAmountCents(amountCents);
+        return order;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
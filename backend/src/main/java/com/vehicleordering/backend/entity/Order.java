@@ -4,16 +4,31 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Composite indexes match the keyset finders in OrderRepository (filter columns, then id) and the archival scan.
+// OrderIndexValidator checks at startup that the live schema has them.
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_email_status", columnList = "email, status, id"),
+        @Index(name = "idx_orders_status", columnList = "status, id"),
+        @Index(name = "idx_orders_created_at", columnList = "createdAt, id"),
+        @Index(name = "idx_orders_status_updated_at", columnList = "status, updatedAt")
+})
 public class Order {
 
+    // Ids per sequence round trip; matches hibernate.jdbc.batch_size
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    // Pooled sequence (emulated with a one-row table on MySQL). Ids are known before the INSERT, so Hibernate
+    // can batch the inserts into orders and order_features; IDENTITY forces one immediate INSERT per order.
+    // OrderIdSequenceInitializer moves the sequence past ids assigned by the old AUTO_INCREMENT column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id")
+    @SequenceGenerator(name = "order_id", sequenceName = "order_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Order ID is required")
@@ -37,7 +52,9 @@ public class Order {
 
     private String wheels;
 
+    // Loaded for up to a full page of orders per query instead of one query per order
     @ElementCollection
+    @BatchSize(size = 500)
     @CollectionTable(name = "order_features", joinColumns = @JoinColumn(name = "order_id"))
     @Column(name = "feature")
     private List<String> features;
@@ -54,6 +71,9 @@ public class Order {
     private String pdfUrl;
     private String paymentId;
 
+    // Catalog price when the order was created, in cents; null for orders created before it was recorded
+    private Long amountCents;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -186,11 +206,29 @@ public class Order {
         this.paymentId = paymentId;
     }
 
+    public Long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(Long amountCents) {
+        this.amountCents = amountCents;
+    }
+
     public enum OrderStatus {
         PENDING,
         PROCESSING,
         CONFIRMED,
         COMPLETED,
-        CANCELLED
+        CANCELLED;
+
+        // COMPLETED and CANCELLED are terminal
+        public boolean canTransitionTo(OrderStatus target) {
+            return switch (this) {
+                case PENDING -> target == PROCESSING || target == CONFIRMED || target == CANCELLED;
+                case PROCESSING -> target == CONFIRMED || target == COMPLETED || target == CANCELLED;
+                case CONFIRMED -> target == PROCESSING || target == COMPLETED || target == CANCELLED;
+                case COMPLETED, CANCELLED -> false;
+            };
+        }
     }
 }
@@ -0,0 +1,59 @@
+package com.vehicleordering.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// Count and revenue of the orders that include a feature, per day and status. An order with several
+// features contributes to each of their rows, so these do not sum to the order totals.
+@Entity
+@Table(name = "order_feature_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_order_feature_rollups_key", columnNames = {"orderDate", "feature", "status"}))
+@Immutable
+public class OrderFeatureRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate orderDate;
+
+    @Column(nullable = false)
+    private String feature;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.OrderStatus status;
+
+    private long orderCount;
+    private long revenueCents;
+
+    protected OrderFeatureRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getOrderDate() {
+        return orderDate;
+    }
+
+    public String getFeature() {
+        return feature;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+}
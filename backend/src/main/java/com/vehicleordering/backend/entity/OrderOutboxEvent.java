@@ -0,0 +1,131 @@
+package com.vehicleordering.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A side effect of an order that still has to run, written in the same transaction as the order itself
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_order_outbox_order_id", columnList = "orderId, status")
+})
+public class OrderOutboxEvent {
+
+    // Ids per sequence round trip; each order enqueues two events, so a full batch of orders takes two
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    // Pooled sequence like Order's, so the events written with a batch of orders are batched too
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_id")
+    @SequenceGenerator(name = "order_outbox_id", sequenceName = "order_outbox_id_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    // When the event is next eligible to run; also serves as the lease while a dispatcher works on it
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    protected OrderOutboxEvent() {
+    }
+
+    public OrderOutboxEvent(String orderId, Type type) {
+        this.orderId = orderId;
+        this.type = type;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public enum Type {
+        GENERATE_PDF,
+        PROCESS_PAYMENT,
+        SEND_EMAIL
+    }
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
@@ -0,0 +1,74 @@
+package com.vehicleordering.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// Order count and revenue per day, model, color, wheels and status. Rows are only ever written by the
+// upserts in OrderRollupRepository; the unique key doubles as the index for day-range queries.
+@Entity
+@Table(name = "order_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_order_rollups_key", columnNames = {"orderDate", "model", "color", "wheels", "status"}))
+@Immutable
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate orderDate;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false)
+    private String color;
+
+    // Empty rather than null, so orders without wheels still collapse onto one row under the unique key
+    @Column(nullable = false)
+    private String wheels;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.OrderStatus status;
+
+    private long orderCount;
+    private long revenueCents;
+
+    protected OrderRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getOrderDate() {
+        return orderDate;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public String getWheels() {
+        return wheels;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+}
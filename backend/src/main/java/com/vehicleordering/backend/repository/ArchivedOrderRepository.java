@@ -0,0 +1,145 @@
+package com.vehicleordering.backend.repository;
+
+import com.vehicleordering.backend.dto.OrderSummary;
+import com.vehicleordering.backend.entity.ArchivedOrder;
+import com.vehicleordering.backend.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Same keyset finders as OrderRepository, against orders_archive. Page finders also take beforeId: OrderService
+// reads the hot page first, and archived rows past its last id cannot make the merged page.
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // Columns copied by copyOrders; OrderIndexValidator checks them against both entities at startup
+    String ORDER_COLUMNS = "id, order_id, customer_name, email, phone, model, color, wheels, special_requests, " +
+                           "status, created_at, updated_at, pdf_url, payment_id, amount_cents";
+
+    @EntityGraph(attributePaths = "features")
+    Optional<ArchivedOrder> findByOrderId(String orderId);
+
+    // Export cursor, as OrderRepository.streamOrders
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM ArchivedOrder o WHERE (:email IS NULL OR o.email = :email) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR o.createdAt <= :endDate) ORDER BY o.id")
+    Stream<ArchivedOrder> streamOrders(@Param("email") String email,
+                                       @Param("status") Order.OrderStatus status,
+                                       @Param("startDate") LocalDateTime startDate,
+                                       @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<ArchivedOrder> findPageAfter(@Param("afterId") long afterId,
+                                      @Param("beforeId") long beforeId,
+                                      Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.email = :email AND o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<ArchivedOrder> findByEmail(@Param("email") String email,
+                                    @Param("afterId") long afterId,
+                                    @Param("beforeId") long beforeId,
+                                    Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.status = :status AND o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<ArchivedOrder> findByStatus(@Param("status") Order.OrderStatus status,
+                                     @Param("afterId") long afterId,
+                                     @Param("beforeId") long beforeId,
+                                     Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.createdAt BETWEEN :startDate AND :endDate " +
+           "AND o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<ArchivedOrder> findOrdersBetweenDates(@Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate,
+                                              @Param("afterId") long afterId,
+                                              @Param("beforeId") long beforeId,
+                                              Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + OrderRepository.SUMMARY_COLUMNS + ") " +
+           "FROM ArchivedOrder o WHERE o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<OrderSummary> findSummaryPageAfter(@Param("afterId") long afterId,
+                                            @Param("beforeId") long beforeId,
+                                            Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + OrderRepository.SUMMARY_COLUMNS + ") " +
+           "FROM ArchivedOrder o WHERE o.email = :email AND o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<OrderSummary> findSummariesByEmail(@Param("email") String email,
+                                            @Param("afterId") long afterId,
+                                            @Param("beforeId") long beforeId,
+                                            Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + OrderRepository.SUMMARY_COLUMNS + ") " +
+           "FROM ArchivedOrder o WHERE o.status = :status AND o.id > :afterId AND o.id < :beforeId ORDER BY o.id")
+    List<OrderSummary> findSummariesByStatus(@Param("status") Order.OrderStatus status,
+                                             @Param("afterId") long afterId,
+                                             @Param("beforeId") long beforeId,
+                                             Pageable pageable);
+
+    @Query("SELECT o.orderId FROM ArchivedOrder o WHERE o.orderId IN :orderIds")
+    List<String> findExistingOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT o.orderId, o.status FROM ArchivedOrder o WHERE o.orderId IN :orderIds")
+    List<Object[]> findStatuses(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM ArchivedOrder o")
+    long findMaxId();
+
+    // Rows of [OrderStatus, Long]
+    @Query("SELECT " + OrderRepository.ROLLUP_COLUMNS + " FROM ArchivedOrder o " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end AND o.id > :afterId ORDER BY o.id")
+    List<Object[]> findRollupFactsBetween(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT o.orderId, f FROM ArchivedOrder o JOIN o.features f WHERE o.orderId IN :orderIds")
+    List<Object[]> findFeatures(@Param("orderIds") Collection<String> orderIds);
+
+    // Archival moves rows with set-based native statements; ids are picked by OrderRepository.findArchivableIds
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (" + ORDER_COLUMNS + ", archived_at) " +
+                   "SELECT " + ORDER_COLUMNS + ", :archivedAt FROM orders WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_features_archive (order_id, feature) " +
+                   "SELECT order_id, feature FROM order_features WHERE order_id IN (:ids)",
+           nativeQuery = true)
+    int copyFeatures(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_features WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteHotFeatures(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteHotOrders(@Param("ids") Collection<Long> ids);
+
+    // ArchivedOrder is immutable, so deleting an archived order also goes through native statements
+
+    @Modifying
+    @Query(value = "DELETE FROM order_features_archive WHERE order_id = :id", nativeQuery = true)
+    int deleteArchivedFeatures(@Param("id") long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders_archive WHERE id = :id", nativeQuery = true)
+    int deleteArchivedOrder(@Param("id") long id);
+}
@@ -0,0 +1,47 @@
+package com.vehicleordering.backend.repository;
+
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so several pods can claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OrderOutboxEvent> findDueForUpdate(@Param("status") OrderOutboxEvent.Status status,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.nextAttemptAt = :until WHERE e.id IN :ids AND e.status = :status")
+    int extendLease(@Param("ids") Collection<Long> ids,
+                    @Param("status") OrderOutboxEvent.Status status,
+                    @Param("until") LocalDateTime until);
+
+    long countByStatus(OrderOutboxEvent.Status status);
+
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.orderId = :orderId AND e.status = :status")
+    int deleteByOrderIdAndStatus(@Param("orderId") String orderId,
+                                 @Param("status") OrderOutboxEvent.Status status);
+
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.status = :status AND e.completedAt < :before")
+    int deleteCompletedBefore(@Param("status") OrderOutboxEvent.Status status,
+                              @Param("before") LocalDateTime before);
+}
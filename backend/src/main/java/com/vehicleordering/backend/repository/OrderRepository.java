@@ -1,32 +1,148 @@
 package com.vehicleordering.backend.repository;
 
+import com.vehicleordering.backend.dto.OrderSummary;
 import com.vehicleordering.backend.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    String SUMMARY_COLUMNS = "o.id, o.orderId, o.customerName, o.email, o.model, o.color, o.wheels, o.status, o.createdAt";
+    String ROLLUP_COLUMNS = "o.id, o.orderId, o.createdAt, o.model, o.color, o.wheels, o.status, o.amountCents";
+
+    @EntityGraph(attributePaths = "features")
     Optional<Order> findByOrderId(String orderId);
 
-    List<Order> findByEmail(String email);
+    // Keyset pagination: callers pass the last id they have seen and a Pageable that only carries the page size
+    @Query("SELECT o FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Order> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.email = :email AND o.id > :afterId ORDER BY o.id")
+    List<Order> findByEmail(@Param("email") String email,
+                            @Param("afterId") long afterId,
+                            Pageable pageable);
 
-    List<Order> findByStatus(Order.OrderStatus status);
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<Order> findByStatus(@Param("status") Order.OrderStatus status,
+                             @Param("afterId") long afterId,
+                             Pageable pageable);
 
-    @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
+    @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate AND o.id > :afterId ORDER BY o.id")
     List<Order> findOrdersBetweenDates(@Param("startDate") LocalDateTime startDate,
-                                      @Param("endDate") LocalDateTime endDate);
+                                      @Param("endDate") LocalDateTime endDate,
+                                      @Param("afterId") long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + SUMMARY_COLUMNS + ") " +
+           "FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<OrderSummary> findSummaryPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + SUMMARY_COLUMNS + ") " +
+           "FROM Order o WHERE o.email = :email AND o.id > :afterId ORDER BY o.id")
+    List<OrderSummary> findSummariesByEmail(@Param("email") String email,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT new com.vehicleordering.backend.dto.OrderSummary(" + SUMMARY_COLUMNS + ") " +
+           "FROM Order o WHERE o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<OrderSummary> findSummariesByStatus(@Param("status") Order.OrderStatus status,
+                                             @Param("afterId") long afterId,
+                                             Pageable pageable);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.orderId IN :orderIds")
+    List<String> findExistingOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    // Intake filter load: the first id in the window via idx_orders_created_at, then a primary key range scan
+    @Query("SELECT MIN(o.id) FROM Order o WHERE o.createdAt >= :since")
+    Long findFirstIdCreatedSince(@Param("since") LocalDateTime since);
+
+    // Rows of [id, orderId]
+    @Query("SELECT o.id, o.orderId FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Object[]> findOrderIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Rollup facts: rows of ROLLUP_COLUMNS, plus [orderId, feature] rows for the same orders
+    @Query("SELECT " + ROLLUP_COLUMNS + " FROM Order o WHERE o.orderId IN :orderIds")
+    List<Object[]> findRollupFacts(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("SELECT " + ROLLUP_COLUMNS + " FROM Order o " +
+           "WHERE o.createdAt >= :start AND o.createdAt < :end AND o.id > :afterId ORDER BY o.id")
+    List<Object[]> findRollupFactsBetween(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT o.orderId, f FROM Order o JOIN o.features f WHERE o.orderId IN :orderIds")
+    List<Object[]> findFeatures(@Param("orderIds") Collection<String> orderIds);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     long countByStatus(@Param("status") Order.OrderStatus status);
 
-    @Query("SELECT o FROM Order o WHERE o.email = :email AND o.status = :status")
+    // Rows of [status name, count] over orders and orders_archive, read in one statement so both tables come
+    // from the same snapshot
+    @Query(value = "SELECT c.status, SUM(c.n) FROM ("
+            + "SELECT status, COUNT(*) AS n FROM orders GROUP BY status "
+            + "UNION ALL SELECT status, COUNT(*) AS n FROM orders_archive GROUP BY status"
+            + ") c GROUP BY c.status", nativeQuery = true)
+    List<Object[]> countGroupedByStatusWithArchive();
+
+    @Query("SELECT o FROM Order o WHERE o.email = :email AND o.status = :status AND o.id > :afterId ORDER BY o.id")
     List<Order> findByEmailAndStatus(@Param("email") String email,
-                                    @Param("status") Order.OrderStatus status);
+                                    @Param("status") Order.OrderStatus status,
+                                    @Param("afterId") long afterId,
+                                    Pageable pageable);
+
+    // Forward-only cursor for exports. MySQL only streams rows when the connection uses useCursorFetch=true.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE (:email IS NULL OR o.email = :email) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR o.createdAt <= :endDate) ORDER BY o.id")
+    Stream<Order> streamOrders(@Param("email") String email,
+                               @Param("status") Order.OrderStatus status,
+                               @Param("startDate") LocalDateTime startDate,
+                               @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.pdfUrl = :pdfUrl, o.updatedAt = CURRENT_TIMESTAMP WHERE o.orderId = :orderId")
+    int updatePdfUrl(@Param("orderId") String orderId, @Param("pdfUrl") String pdfUrl);
+
+    // Rows of [orderId, OrderStatus], locked until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.orderId, o.status FROM Order o WHERE o.orderId IN :orderIds")
+    List<Object[]> findStatusesForUpdate(@Param("orderIds") Collection<String> orderIds);
+
+    // Bulk update: bypasses @PreUpdate, so updatedAt is set explicitly
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt WHERE o.orderId IN :orderIds")
+    int updateStatus(@Param("orderIds") Collection<String> orderIds,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Oldest first, so each archival batch advances through the table. Locked so the rows cannot change
+    // between being copied and deleted.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.updatedAt")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
 }
@@ -0,0 +1,85 @@
+package com.vehicleordering.backend.repository;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Aggregates read the rollup tables only; rows of [dimension value, Long orderCount, Long revenueCents]
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    String RANGE = "WHERE r.orderDate BETWEEN :from AND :to AND r.status IN :statuses ";
+
+    @Query("SELECT r.orderDate, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderRollup r " + RANGE +
+           "GROUP BY r.orderDate ORDER BY r.orderDate")
+    List<Object[]> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                            @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT r.model, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderRollup r " + RANGE +
+           "GROUP BY r.model ORDER BY r.model")
+    List<Object[]> sumByModel(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT r.color, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderRollup r " + RANGE +
+           "GROUP BY r.color ORDER BY r.color")
+    List<Object[]> sumByColor(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT r.wheels, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderRollup r " + RANGE +
+           "GROUP BY r.wheels ORDER BY r.wheels")
+    List<Object[]> sumByWheels(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT r.status, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderRollup r " + RANGE +
+           "GROUP BY r.status ORDER BY r.status")
+    List<Object[]> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                               @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT r.feature, SUM(r.orderCount), SUM(r.revenueCents) FROM OrderFeatureRollup r " + RANGE +
+           "GROUP BY r.feature ORDER BY r.feature")
+    List<Object[]> sumByFeature(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    // Deltas are added in place, so concurrent writers never read-modify-write the same row
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (order_date, model, color, wheels, status, order_count, revenue_cents) " +
+                   "VALUES (:orderDate, :model, :color, :wheels, :status, :orderCount, :revenueCents) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "revenue_cents = revenue_cents + VALUES(revenue_cents)",
+           nativeQuery = true)
+    int upsert(@Param("orderDate") LocalDate orderDate,
+               @Param("model") String model,
+               @Param("color") String color,
+               @Param("wheels") String wheels,
+               @Param("status") String status,
+               @Param("orderCount") long orderCount,
+               @Param("revenueCents") long revenueCents);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_feature_rollups (order_date, feature, status, order_count, revenue_cents) " +
+                   "VALUES (:orderDate, :feature, :status, :orderCount, :revenueCents) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "revenue_cents = revenue_cents + VALUES(revenue_cents)",
+           nativeQuery = true)
+    int upsertFeature(@Param("orderDate") LocalDate orderDate,
+                      @Param("feature") String feature,
+                      @Param("status") String status,
+                      @Param("orderCount") long orderCount,
+                      @Param("revenueCents") long revenueCents);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.orderDate = :orderDate")
+    int deleteDay(@Param("orderDate") LocalDate orderDate);
+
+    @Modifying
+    @Query("DELETE FROM OrderFeatureRollup r WHERE r.orderDate = :orderDate")
+    int deleteFeatureDay(@Param("orderDate") LocalDate orderDate);
+}
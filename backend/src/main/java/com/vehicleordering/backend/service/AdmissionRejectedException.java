@@ -0,0 +1,30 @@
+package com.vehicleordering.backend.service;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    public enum Reason {
+        OVERLOADED,
+        RATE_LIMITED
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Reason reason, Duration retryAfter) {
+        super(reason == Reason.OVERLOADED
+                ? "The order service is at capacity, retry later"
+                : "Too many requests from this caller, retry later");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package com.vehicleordering.backend.service;
+
+// The order's current status may not move to the requested one; reported to the client as 409
+public class IllegalStatusTransitionException extends RuntimeException {
+
+    public IllegalStatusTransitionException(String message) {
+        super(message);
+    }
+}
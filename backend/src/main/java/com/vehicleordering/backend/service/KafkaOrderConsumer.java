@@ -0,0 +1,356 @@
+package com.vehicleordering.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class KafkaOrderConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaOrderConsumer.class);
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final boolean acceptJson;
+    private final int concurrency;
+    private final Duration drainTimeout;
+    private final Duration retryBackoff;
+    private final ExecutorService laneExecutor;
+
+    // Metrics
+    private final Counter ordersIngestedCounter;
+    private final Counter malformedRecordCounter;
+    private final Counter duplicateRecordCounter;
+    private final Counter binaryRecordCounter;
+    private final Counter jsonRecordCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer batchPersistTimer;
+
+    public KafkaOrderConsumer(OrderService orderService, ObjectMapper objectMapper,
+                              OrderPipelineMetrics pipelineMetrics, MeterRegistry meterRegistry,
+                              @Value("${kafka.orders.accept-json:true}") boolean acceptJson,
+                              @Value("${kafka.orders.parallel.enabled:false}") boolean parallel,
+                              @Value("${kafka.orders.parallel.concurrency:8}") int concurrency,
+                              @Value("${kafka.orders.parallel.drain-timeout:30s}") Duration drainTimeout,
+                              @Value("${kafka.orders.parallel.retry-backoff:1s}") Duration retryBackoff) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.pipelineMetrics = pipelineMetrics;
+        this.acceptJson = acceptJson;
+        this.concurrency = concurrency;
+        this.drainTimeout = drainTimeout;
+        this.retryBackoff = retryBackoff;
+
+        if (parallel) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.laneExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "order-consumer-lane-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.laneExecutor = null;
+        }
+
+        this.ordersIngestedCounter = Counter.builder("orders.ingested")
+                .description("Number of orders persisted from Kafka")
+                .register(meterRegistry);
+
+        this.malformedRecordCounter = Counter.builder("orders.ingest.malformed")
+                .description("Number of Kafka order records that could not be parsed")
+                .register(meterRegistry);
+
+        this.duplicateRecordCounter = Counter.builder("orders.ingest.duplicates")
+                .description("Number of redelivered Kafka order records that were already stored")
+                .register(meterRegistry);
+
+        // Tracks the JSON -> binary migration; JSON can be switched off once its count stays at zero
+        this.binaryRecordCounter = Counter.builder("orders.ingest.records")
+                .description("Number of Kafka order records received, by encoding")
+                .tag("format", "binary")
+                .register(meterRegistry);
+
+        this.jsonRecordCounter = Counter.builder("orders.ingest.records")
+                .description("Number of Kafka order records received, by encoding")
+                .tag("format", "json")
+                .register(meterRegistry);
+
+        this.batchSizeSummary = DistributionSummary.builder("orders.ingest.batch.size")
+                .description("Number of orders persisted per Kafka poll")
+                .register(meterRegistry);
+
+        this.batchPersistTimer = Timer.builder("orders.ingest.batch.duration")
+                .description("Time taken to persist one Kafka poll of orders")
+                .register(meterRegistry);
+    }
+
+    // Sequential mode: one poll is persisted in a single transaction and offsets are acknowledged only after
+    // it commits, so a failed batch is redelivered as a whole by the container.
+    // Parallel mode: the poll is split into lanes by orderId, so every record for an order lands in the same
+    // lane and keeps its order, and the lanes are persisted concurrently. The listener waits for all of them
+    // before returning, so nothing is in flight when partitions are revoked or the container stops. Offsets
+    // are committed up to the first record of the earliest failed lane; everything from there is redelivered.
+    @KafkaListener(topics = "${kafka.topic.orders}", batch = "true")
+    public void consumeOrders(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        logger.debug("Received batch of {} order records", records.size());
+
+        int laneCount = laneExecutor != null ? concurrency : 1;
+        List<Map<String, Order>> lanes = new ArrayList<>(laneCount);
+        int[] firstIndex = new int[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            // Keyed by orderId so producer retries within the same poll don't break the unique constraint
+            lanes.add(new LinkedHashMap<>());
+            firstIndex[lane] = records.size();
+        }
+
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            Order order = parseOrder(record);
+            if (order != null) {
+                int lane = Math.floorMod(order.getOrderId().hashCode(), laneCount);
+                lanes.get(lane).put(order.getOrderId(), order);
+                firstIndex[lane] = Math.min(firstIndex[lane], i);
+                // Time from the producer's record timestamp until this poll picked it up
+                pipelineMetrics.record(OrderPipelineMetrics.Stage.KAFKA, order.getOrderId(),
+                        Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+            }
+        }
+
+        if (laneExecutor == null) {
+            Map<String, Order> orders = lanes.get(0);
+            if (!orders.isEmpty()) {
+                int persisted = batchPersistTimer.record(() -> persist(new ArrayList<>(orders.values())));
+                batchSizeSummary.record(persisted);
+            }
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        int firstFailed = batchPersistTimer.record(() -> persistLanes(lanes, firstIndex, records.size()));
+        if (firstFailed == records.size()) {
+            acknowledgment.acknowledge();
+        } else {
+            // Commits everything before the failed record and seeks back to it
+            acknowledgment.nack(firstFailed, retryBackoff);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (laneExecutor != null) {
+            laneExecutor.shutdown();
+            laneExecutor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Returns the index of the first record that has to be redelivered, or recordCount if every lane committed.
+    // Lanes still running at the drain timeout are interrupted, and waited for regardless: the offsets are only
+    // acknowledged or rewound once no lane can still commit.
+    private int persistLanes(List<Map<String, Order>> lanes, int[] firstIndex, int recordCount) {
+        List<Lane> running = new ArrayList<>(lanes.size());
+        for (Map<String, Order> orders : lanes) {
+            Lane lane = new Lane(new ArrayList<>(orders.values()));
+            running.add(lane);
+            if (lane.batch.isEmpty()) {
+                lane.result.complete(0);
+            } else {
+                laneExecutor.execute(lane);
+            }
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                running.stream().map(lane -> lane.result).toArray(CompletableFuture[]::new));
+        boolean interrupted = false;
+        try {
+            all.get(drainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Order lanes still running after {}, interrupting them", drainTimeout);
+            running.forEach(Lane::cancel);
+        } catch (ExecutionException e) {
+            // Some lane failed; handled per lane below
+        } catch (InterruptedException e) {
+            interrupted = true;
+            running.forEach(Lane::cancel);
+        }
+        while (!all.isDone()) {
+            try {
+                all.get();
+            } catch (ExecutionException e) {
+                // Handled per lane below
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        int firstFailed = recordCount;
+        int persisted = 0;
+        for (int lane = 0; lane < running.size(); lane++) {
+            try {
+                persisted += running.get(lane).result.join();
+            } catch (CompletionException | CancellationException e) {
+                firstFailed = Math.min(firstFailed, firstIndex[lane]);
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.error("Order lane {} failed, redelivering from record {}: {}", lane, firstIndex[lane],
+                        cause.getMessage(), cause);
+            }
+        }
+        batchSizeSummary.record(persisted);
+        return firstFailed;
+    }
+
+    // Redelivered records are normally skipped by createOrders via the intake filter. The decoded orders are
+    // never persisted themselves: every attempt gets fresh entities, so a retry carries nothing (ids, managed
+    // collections) over from a rolled-back session.
+    private int persist(List<Order> batch) {
+        int created;
+        try {
+            created = orderService.createOrders(batch.stream().map(KafkaOrderConsumer::newEntity).toList()).size();
+        } catch (DataIntegrityViolationException e) {
+            // Stored concurrently or by another node since the filter was checked: drop those and retry once
+            Set<String> existing = orderService.findExistingOrderIds(batch.stream().map(Order::getOrderId).toList());
+            List<Order> remaining = batch.stream()
+                    .filter(order -> !existing.contains(order.getOrderId()))
+                    .map(KafkaOrderConsumer::newEntity)
+                    .toList();
+            if (remaining.size() == batch.size()) {
+                throw e;
+            }
+            created = remaining.isEmpty() ? 0 : orderService.createOrders(remaining).size();
+        }
+        duplicateRecordCounter.increment(batch.size() - created);
+        ordersIngestedCounter.increment(created);
+        return created;
+    }
+
+    // Everything a producer may set; ids, timestamps and the amount are assigned when the order is created
+    private static Order newEntity(Order decoded) {
+        Order order = new Order();
+        order.setOrderId(decoded.getOrderId());
+        order.setCustomerName(decoded.getCustomerName());
+        order.setEmail(decoded.getEmail());
+        order.setPhone(decoded.getPhone());
+        order.setModel(decoded.getModel());
+        order.setColor(decoded.getColor());
+        order.setWheels(decoded.getWheels());
+        order.setFeatures(decoded.getFeatures() != null ? new ArrayList<>(decoded.getFeatures()) : null);
+        order.setSpecialRequests(decoded.getSpecialRequests());
+        if (decoded.getStatus() != null) {
+            order.setStatus(decoded.getStatus());
+        }
+        order.setPdfUrl(decoded.getPdfUrl());
+        order.setPaymentId(decoded.getPaymentId());
+        return order;
+    }
+
+    private Order parseOrder(ConsumerRecord<String, byte[]> record) {
+        try {
+            Order order = decode(record.value());
+            if (order.getOrderId() == null) {
+                order.setOrderId(record.key());
+            }
+            if (order.getOrderId() == null) {
+                throw new IllegalArgumentException("Order record has no orderId");
+            }
+            return order;
+        } catch (IOException | IllegalArgumentException e) {
+            malformedRecordCounter.increment();
+            logger.error("Skipping malformed order record at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Both encodings share the topic while producers migrate; the leading magic byte tells them apart
+    private Order decode(byte[] value) throws IOException {
+        if (value == null || value.length == 0) {
+            throw new IllegalArgumentException("Order record is empty");
+        }
+        if (OrderEventCodec.isBinary(value)) {
+            binaryRecordCounter.increment();
+            return OrderEventCodec.decode(value);
+        }
+        jsonRecordCounter.increment();
+        if (!acceptJson) {
+            throw new IllegalArgumentException("JSON order records are no longer accepted");
+        }
+        return objectMapper.readValue(value, Order.class);
+    }
+
+    // One lane's persist call. result completes only once the call has returned, so a lane that is cancelled
+    // while running is still waited for; one cancelled before it started never runs.
+    private final class Lane implements Runnable {
+
+        private final List<Order> batch;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private boolean started;  // guarded by this
+        private Thread runner;    // guarded by this
+
+        private Lane(List<Order> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+                runner = Thread.currentThread();
+            }
+            try {
+                result.complete(persist(batch));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                // An interrupt that landed just as the lane finished must not reach the thread's next lane
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void cancel() {
+            if (!started) {
+                started = true;
+                result.completeExceptionally(new CancellationException("Order lane timed out before starting"));
+            } else if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
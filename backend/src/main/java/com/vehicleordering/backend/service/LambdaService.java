@@ -1,100 +1,242 @@
 package com.vehicleordering.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
 import software.amazon.awssdk.services.lambda.model.InvokeRequest;
 import software.amazon.awssdk.services.lambda.model.InvokeResponse;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class LambdaService {
 
     private static final Logger logger = LoggerFactory.getLogger(LambdaService.class);
 
-    private final LambdaClient lambdaClient;
+    // What to do when the dispatch queue is full
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        BLOCK
+    }
+
+    private final LambdaAsyncClient lambdaAsyncClient;
     private final ObjectMapper objectMapper;
+    private final PricingEngine pricingEngine;
+    private final OrderPipelineMetrics pipelineMetrics;
     private final String paymentFunctionArn;
     private final String emailFunctionArn;
 
-    public LambdaService(LambdaClient lambdaClient,
+    // Invocations waiting for an in-flight slot
+    private final BlockingQueue<PendingInvocation> queue;
+    private final Semaphore inFlight;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+
+    // Metrics
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+
+    public LambdaService(LambdaAsyncClient lambdaAsyncClient,
                         ObjectMapper objectMapper,
+                        PricingEngine pricingEngine,
+                        OrderPipelineMetrics pipelineMetrics,
+                        MeterRegistry meterRegistry,
                         @Value("${aws.lambda.payment-function}") String paymentFunctionArn,
-                        @Value("${aws.lambda.email-function}") String emailFunctionArn) {
-        this.lambdaClient = lambdaClient;
+                        @Value("${aws.lambda.email-function}") String emailFunctionArn,
+                        @Value("${aws.lambda.max-in-flight:64}") int maxInFlight,
+                        @Value("${aws.lambda.queue-capacity:1000}") int queueCapacity,
+                        @Value("${aws.lambda.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                        @Value("${aws.lambda.block-timeout-ms:1000}") long blockTimeoutMs) {
+        this.lambdaAsyncClient = lambdaAsyncClient;
         this.objectMapper = objectMapper;
+        this.pricingEngine = pricingEngine;
+        this.pipelineMetrics = pipelineMetrics;
+        this.meterRegistry = meterRegistry;
         this.paymentFunctionArn = paymentFunctionArn;
         this.emailFunctionArn = emailFunctionArn;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+
+        Gauge.builder("lambda.dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Lambda invocations waiting for an in-flight slot")
+                .register(meterRegistry);
+
+        Gauge.builder("lambda.dispatch.in-flight", inFlight, semaphore -> maxInFlight - semaphore.availablePermits())
+                .description("Lambda invocations currently awaiting a response")
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("lambda.dispatch.rejected")
+                .description("Lambda invocations dropped because the dispatch queue was full")
+                .register(meterRegistry);
     }
 
-    @Async
-    public void triggerPaymentProcessing(com.vehicleordering.backend.entity.Order order) {
+    // The returned future completes once Lambda has accepted the event, or exceptionally if the
+    // invocation failed or was dropped by the overflow policy. Callers are never blocked on AWS.
+    // idempotencyKey stays the same across retries of one charge, so the payment function can drop a
+    // repeated event instead of charging twice.
+    public CompletableFuture<Void> triggerPaymentProcessing(com.vehicleordering.backend.entity.Order order,
+                                                            String idempotencyKey) {
         logger.info("Triggering payment processing Lambda for order: {}", order.getOrderId());
 
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("orderId", order.getOrderId());
-            payload.put("customerEmail", order.getEmail());
-            payload.put("amount", calculateOrderAmount(order)); // Simplified calculation
-            payload.put("currency", "USD");
-
-            invokeLambda(paymentFunctionArn, payload);
-
-            logger.info("Payment processing Lambda triggered successfully for order: {}", order.getOrderId());
+            return invokeLambda("payment", OrderPipelineMetrics.Stage.LAMBDA_PAYMENT, paymentFunctionArn,
+                    order.getOrderId(), buildPaymentPayload(order, idempotencyKey));
 
         } catch (Exception e) {
             logger.error("Error triggering payment processing Lambda for order {}: {}",
                         order.getOrderId(), e.getMessage(), e);
-            // Don't throw exception as payment processing is asynchronous
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    @Async
-    public void triggerEmailNotification(com.vehicleordering.backend.entity.Order order) {
+    public CompletableFuture<Void> triggerEmailNotification(com.vehicleordering.backend.entity.Order order) {
         logger.info("Triggering email notification Lambda for order: {}", order.getOrderId());
 
         try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("orderId", order.getOrderId());
-            payload.put("customerEmail", order.getEmail());
-            payload.put("customerName", order.getCustomerName());
-            payload.put("pdfUrl", order.getPdfUrl());
-            payload.put("orderDetails", createOrderDetailsMap(order));
-
-            invokeLambda(emailFunctionArn, payload);
-
-            logger.info("Email notification Lambda triggered successfully for order: {}", order.getOrderId());
+            return invokeLambda("email", OrderPipelineMetrics.Stage.LAMBDA_EMAIL, emailFunctionArn,
+                    order.getOrderId(), buildEmailPayload(order));
 
         } catch (Exception e) {
             logger.error("Error triggering email notification Lambda for order {}: {}",
                         order.getOrderId(), e.getMessage(), e);
-            // Don't throw exception as email notification is asynchronous
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private void invokeLambda(String functionArn, Map<String, Object> payload) throws Exception {
-        String payloadJson = objectMapper.writeValueAsString(payload);
-
+    private CompletableFuture<Void> invokeLambda(String function, OrderPipelineMetrics.Stage stage, String functionArn,
+                                                 String orderId, Map<String, Object> payload) throws Exception {
         InvokeRequest invokeRequest = InvokeRequest.builder()
                 .functionName(functionArn)
-                .payload(StandardCharsets.UTF_8.encode(payloadJson))
+                .payload(SdkBytes.fromByteArrayUnsafe(objectMapper.writeValueAsBytes(payload)))
                 .invocationType("Event") // Asynchronous invocation
                 .build();
 
-        InvokeResponse invokeResponse = lambdaClient.invoke(invokeRequest);
+        PendingInvocation invocation = new PendingInvocation(function, stage, orderId, invokeRequest);
+        enqueue(invocation);
+        drain();
+        return invocation.result;
+    }
+
+    private void enqueue(PendingInvocation invocation) throws InterruptedException {
+        if (queue.offer(invocation)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                PendingInvocation dropped = queue.poll();
+                if (dropped != null) {
+                    reject(dropped);
+                }
+                if (!queue.offer(invocation)) {
+                    reject(invocation);
+                }
+            }
+            case BLOCK -> {
+                if (!queue.offer(invocation, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    reject(invocation);
+                }
+            }
+            default -> reject(invocation);
+        }
+    }
+
+    private void reject(PendingInvocation invocation) {
+        rejectedCounter.increment();
+        logger.warn("Lambda dispatch queue full, dropping {} invocation for order {}",
+                invocation.function, invocation.orderId);
+        invocation.result.completeExceptionally(
+                new RejectedExecutionException("Lambda dispatch queue full"));
+    }
 
-        if (invokeResponse.statusCode() != 202) { // 202 = Accepted for async invocations
-            logger.warn("Lambda invocation returned status code: {}", invokeResponse.statusCode());
+    // Starts queued invocations while in-flight slots are free. Called after every enqueue and every
+    // completion, so a slot released by one thread is always picked up by whichever thread drains next.
+    private void drain() {
+        while (!queue.isEmpty() && inFlight.tryAcquire()) {
+            PendingInvocation invocation = queue.poll();
+            if (invocation == null) {
+                inFlight.release();
+                return;
+            }
+            dispatch(invocation);
         }
+    }
+
+    private void dispatch(PendingInvocation invocation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<InvokeResponse> response;
+        try {
+            response = lambdaAsyncClient.invoke(invocation.request);
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((invokeResponse, error) -> {
+            inFlight.release();
 
-        logger.debug("Lambda function invoked successfully: {}", functionArn);
+            String outcome = error != null ? "error" : "success";
+            sample.stop(Timer.builder("lambda.invoke.duration")
+                    .description("Time from dispatch until Lambda accepted the invocation")
+                    .tag("function", invocation.function)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            pipelineMetrics.record(invocation.stage, invocation.orderId, startNanos);
+
+            if (error != null) {
+                logger.error("Error invoking {} Lambda for order {}: {}",
+                        invocation.function, invocation.orderId, error.getMessage(), error);
+                invocation.result.completeExceptionally(error);
+            } else {
+                if (invokeResponse.statusCode() != 202) { // 202 = Accepted for async invocations
+                    logger.warn("Lambda invocation returned status code: {}", invokeResponse.statusCode());
+                }
+                logger.debug("{} Lambda invoked successfully for order {}", invocation.function, invocation.orderId);
+                invocation.result.complete(null);
+            }
+
+            drain();
+        });
+    }
+
+    // Public for the benchmark module
+    public Map<String, Object> buildPaymentPayload(com.vehicleordering.backend.entity.Order order, String idempotencyKey) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("idempotencyKey", idempotencyKey);
+        payload.put("orderId", order.getOrderId());
+        payload.put("customerEmail", order.getEmail());
+        payload.put("amount", calculateOrderAmount(order));
+        payload.put("currency", pricingEngine.getCatalog().getCurrency());
+        return payload;
+    }
+
+    public Map<String, Object> buildEmailPayload(com.vehicleordering.backend.entity.Order order) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("orderId", order.getOrderId());
+        payload.put("customerEmail", order.getEmail());
+        payload.put("customerName", order.getCustomerName());
+        payload.put("pdfUrl", order.getPdfUrl());
+        payload.put("orderDetails", createOrderDetailsMap(order));
+        return payload;
     }
 
     private Map<String, Object> createOrderDetailsMap(com.vehicleordering.backend.entity.Order order) {
@@ -108,24 +250,24 @@ public class LambdaService {
         return details;
     }
 
-    // Simplified order amount calculation - in real implementation, this would be more complex
-    private double calculateOrderAmount(com.vehicleordering.backend.entity.Order order) {
-        double basePrice = 25000.0; // Base price for any vehicle
+    // The amount fixed when the order was created; orders from before amounts were stored are quoted now
+    public double calculateOrderAmount(com.vehicleordering.backend.entity.Order order) {
+        return order.getAmountCents() != null ? order.getAmountCents() / 100.0 : pricingEngine.quote(order);
+    }
 
-        // Add feature costs
-        double featureCost = 0.0;
-        if (order.getFeatures() != null) {
-            featureCost = order.getFeatures().size() * 1500.0; // $1500 per feature
-        }
+    private static final class PendingInvocation {
+        private final String function;
+        private final OrderPipelineMetrics.Stage stage;
+        private final String orderId;
+        private final InvokeRequest request;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
 
-        // Add premium wheels cost
-        double wheelsCost = 0.0;
-        if ("Premium Alloy".equals(order.getWheels()) || "Chrome".equals(order.getWheels())) {
-            wheelsCost = 2000.0;
-        } else if ("Carbon Fiber".equals(order.getWheels())) {
-            wheelsCost = 5000.0;
+        private PendingInvocation(String function, OrderPipelineMetrics.Stage stage, String orderId,
+                                  InvokeRequest request) {
+            this.function = function;
+            this.stage = stage;
+            this.orderId = orderId;
+            this.request = request;
         }
-
-        return basePrice + featureCost + wheelsCost;
     }
 }
@@ -0,0 +1,257 @@
+package com.vehicleordering.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Admission for order API requests, decided before any database work:
+// - per-caller token buckets keyed by the token's subject, one budget for reads and a smaller one for writes,
+//   so browsing and polling never use up a caller's allowance for changes; rejected with 429;
+// - an adaptive concurrency limit, rejected with 503. The limit follows AIMD on request latency: every
+//   window it drops by backoff-ratio if the window's average latency exceeded tolerance times the no-load
+//   baseline (and latency-floor), or if over a tenth of its requests failed with 5xx; otherwise it grows by one while demand is
+//   actually reaching it. The baseline is the lowest window average, drifting slowly towards recent
+//   averages so a lasting shift in normal latency is eventually accepted.
+// Requests only add to striped counters; the thread whose sample closes a window does the adjustment.
+@Component
+public class OrderAdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderAdmissionControl.class);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final double MAX_FAILURE_RATIO = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final long latencyFloorNanos;
+    private final long windowNanos;
+    private final Duration retryAfter;
+    private final double readsPerSecond;
+    private final int readBurst;
+    private final double writesPerSecond;
+    private final int writeBurst;
+    private final Map<Budget, Cache<String, TokenBucket>> buckets = new EnumMap<>(Budget.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Current window; closed by whichever sample first finds it over
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowLatencySum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowFailures = new LongAdder();
+    // Only touched while closing a window, guarded by this
+    private double baselineNanos = Double.NaN;
+
+    // Metrics
+    private final Counter admittedCounter;
+    private final Counter overloadedCounter;
+    private final Counter rateLimitedCounter;
+
+    public OrderAdmissionControl(MeterRegistry meterRegistry,
+                                 @Value("${orders.admission.initial-limit:50}") int initialLimit,
+                                 @Value("${orders.admission.min-limit:8}") int minLimit,
+                                 @Value("${orders.admission.max-limit:200}") int maxLimit,
+                                 @Value("${orders.admission.latency-tolerance:2.0}") double tolerance,
+                                 @Value("${orders.admission.backoff-ratio:0.9}") double backoffRatio,
+                                 @Value("${orders.admission.latency-floor:50ms}") Duration latencyFloor,
+                                 @Value("${orders.admission.window:500ms}") Duration window,
+                                 @Value("${orders.admission.retry-after:1s}") Duration retryAfter,
+                                 @Value("${orders.admission.rate-limit.read.per-second:50}") double readsPerSecond,
+                                 @Value("${orders.admission.rate-limit.read.burst:200}") int readBurst,
+                                 @Value("${orders.admission.rate-limit.write.per-second:5}") double writesPerSecond,
+                                 @Value("${orders.admission.rate-limit.write.burst:20}") int writeBurst,
+                                 @Value("${orders.admission.rate-limit.max-callers:100000}") long maxCallers) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.latencyFloorNanos = latencyFloor.toNanos();
+        this.windowNanos = window.toNanos();
+        this.retryAfter = retryAfter;
+        this.readsPerSecond = readsPerSecond;
+        this.readBurst = readBurst;
+        this.writesPerSecond = writesPerSecond;
+        this.writeBurst = writeBurst;
+        buckets.put(Budget.READ, bucketCache(readsPerSecond, readBurst, maxCallers));
+        buckets.put(Budget.WRITE, bucketCache(writesPerSecond, writeBurst, maxCallers));
+
+        Gauge.builder("orders.admission.limit", this, control -> control.limit)
+                .description("Current adaptive concurrency limit for order API requests")
+                .register(meterRegistry);
+
+        Gauge.builder("orders.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("Order API requests currently admitted")
+                .register(meterRegistry);
+
+        this.admittedCounter = Counter.builder("orders.admission.admitted")
+                .description("Number of order API requests admitted")
+                .register(meterRegistry);
+
+        this.overloadedCounter = Counter.builder("orders.admission.shed")
+                .description("Number of order API requests rejected before any work, by reason")
+                .tag("reason", "overloaded")
+                .register(meterRegistry);
+
+        this.rateLimitedCounter = Counter.builder("orders.admission.shed")
+                .description("Number of order API requests rejected before any work, by reason")
+                .tag("reason", "rate-limited")
+                .register(meterRegistry);
+    }
+
+    // subject is the authenticated caller, never anything taken from the request itself; without one only the
+    // concurrency limit applies
+    public Permit admit(String subject, Budget budget) {
+        if (subject != null) {
+            long waitNanos = buckets.get(budget).get(subject, ignored -> newBucket(budget)).take();
+            if (waitNanos > 0) {
+                rateLimitedCounter.increment();
+                throw new AdmissionRejectedException(AdmissionRejectedException.Reason.RATE_LIMITED,
+                        Duration.ofNanos(waitNanos));
+            }
+        }
+
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            overloadedCounter.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.OVERLOADED, retryAfter);
+        }
+        windowMaxInFlight.accumulateAndGet(current, Math::max);
+        admittedCounter.increment();
+        return new Permit();
+    }
+
+    private void sample(long latencyNanos, boolean failed) {
+        windowLatencySum.add(latencyNanos);
+        windowSamples.increment();
+        if (failed) {
+            windowFailures.increment();
+        }
+
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start < windowNanos || windowSamples.sum() < MIN_WINDOW_SAMPLES
+                || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+
+        // Samples racing with the reset are counted in the next window instead; that is close enough
+        long samples = windowSamples.sumThenReset();
+        long latencySum = windowLatencySum.sumThenReset();
+        long failures = windowFailures.sumThenReset();
+        if (samples > 0) {
+            adjust((double) latencySum / samples, failures > samples * MAX_FAILURE_RATIO);
+        }
+    }
+
+    private synchronized void adjust(double average, boolean failing) {
+        if (Double.isNaN(baselineNanos) || average < baselineNanos) {
+            baselineNanos = average;
+        } else {
+            baselineNanos += (average - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        int previous = limit;
+        boolean overloaded = failing || average > Math.max(baselineNanos * tolerance, latencyFloorNanos);
+        if (overloaded) {
+            limit = Math.max(minLimit, (int) (previous * backoffRatio));
+        } else if (windowMaxInFlight.get() >= previous / 2) {
+            // Only grow when demand is using the limit, or it drifts up unchecked while idle
+            limit = Math.min(maxLimit, previous + 1);
+        }
+        if (limit != previous) {
+            logger.debug("Order admission limit {} -> {} (window average {} ms, baseline {} ms{})", previous, limit,
+                    Math.round(average / 1e6), Math.round(baselineNanos / 1e6), failing ? ", failing" : "");
+        }
+        windowMaxInFlight.set(inFlight.get());
+    }
+
+    private static Cache<String, TokenBucket> bucketCache(double perSecond, int burst, long maxCallers) {
+        // An idle bucket is full again after burst / rate seconds, so it can be forgotten then
+        return Caffeine.newBuilder()
+                .maximumSize(maxCallers)
+                .expireAfterAccess((long) Math.ceil(burst / perSecond * 1000), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private TokenBucket newBucket(Budget budget) {
+        return budget == Budget.READ
+                ? new TokenBucket(readsPerSecond, readBurst)
+                : new TokenBucket(writesPerSecond, writeBurst);
+    }
+
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        // failed means the request failed in a way that suggests overload (a 5xx); it counts against the limit
+        public void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                sample(System.nanoTime() - startNanos, failed);
+            }
+        }
+
+        // For requests that go async (streams, exports): their duration says nothing about load
+        public void releaseUnsampled() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    public enum Budget {
+        READ,
+        WRITE
+    }
+
+    private static final class TokenBucket {
+
+        private final double tokensPerSecond;
+        private final double burst;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(double tokensPerSecond, double burst) {
+            this.tokensPerSecond = tokensPerSecond;
+            this.burst = burst;
+            this.tokens = burst;
+        }
+
+        // Returns 0 if a token was taken, otherwise how long until one is available
+        private synchronized long take() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * tokensPerSecond);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerSecond * 1e9);
+        }
+    }
+}
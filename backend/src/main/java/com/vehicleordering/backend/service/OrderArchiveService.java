@@ -0,0 +1,88 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Moves finished orders from the hot orders table to orders_archive. Each batch is copied and deleted in
+// one transaction, so an order is always in exactly one of the two tables.
+@Service
+@Transactional
+public class OrderArchiveService {
+
+    static final Set<Order.OrderStatus> ARCHIVABLE_STATUSES =
+            EnumSet.of(Order.OrderStatus.COMPLETED, Order.OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final boolean archiveEnabled;
+    // Highest id in orders_archive, so pages past it skip the archive. Unknown (MAX_VALUE) until first read;
+    // batches archived on other nodes are seen at the next refresh.
+    private volatile long maxArchivedId = Long.MAX_VALUE;
+
+    public OrderArchiveService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                               @Value("${orders.archive.enabled:false}") boolean archiveEnabled) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    // Returns the number of orders moved; fewer than batchSize means nothing older than the cutoff is left
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = orderRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, PageRequest.ofSize(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.copyOrders(ids, LocalDateTime.now());
+        archivedOrderRepository.copyFeatures(ids);
+        archivedOrderRepository.deleteHotFeatures(ids);
+        int moved = archivedOrderRepository.deleteHotOrders(ids);
+
+        long batchMaxId = Collections.max(ids);
+        afterCommit(() -> {
+            if (maxArchivedId != Long.MAX_VALUE) {
+                maxArchivedId = Math.max(maxArchivedId, batchMaxId);
+            }
+        });
+        return moved;
+    }
+
+    public long getMaxArchivedId() {
+        return maxArchivedId;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.max-id-refresh-ms:10000}")
+    @Transactional(readOnly = true)
+    public void refreshMaxArchivedId() {
+        if (archiveEnabled) {
+            maxArchivedId = archivedOrderRepository.findMaxId();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.vehicleordering.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Periodically archives COMPLETED and CANCELLED orders not updated for orders.archive.min-age.
+// Only runs in archival mode (orders.archive.enabled=true).
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true")
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderArchiveService archiveService;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter archivedCounter;
+
+    public OrderArchiver(OrderArchiveService archiveService,
+                         MeterRegistry meterRegistry,
+                         @Value("${orders.archive.min-age:90d}") Duration minAge,
+                         @Value("${orders.archive.batch-size:500}") int batchSize,
+                         @Value("${orders.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archiveService = archiveService;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.archivedCounter = Counter.builder("orders.archived")
+                .description("Number of orders moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    // Short transactions with a cap per run, so archiving never holds locks on the hot table for long
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long total = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int archived = archiveService.archiveBatch(cutoff, batchSize);
+                total += archived;
+                archivedCounter.increment(archived);
+                if (archived < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error archiving orders: {}", e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            logger.info("Archived {} orders last updated before {}", total, cutoff);
+        }
+    }
+}
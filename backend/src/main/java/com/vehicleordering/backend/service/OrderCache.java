@@ -0,0 +1,70 @@
+package com.vehicleordering.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehicleordering.backend.entity.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Bounded in-process cache of orders keyed by orderId. Cached instances are detached and shared
+// between callers, so they must be treated as read-only.
+@Component
+public class OrderCache {
+
+    private final Cache<String, Order> cache;
+
+    public OrderCache(MeterRegistry meterRegistry,
+                      @Value("${orders.cache.max-size:10000}") long maxSize,
+                      @Value("${orders.cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // Registers cache.gets (hit/miss), cache.evictions, cache.puts and cache.size tagged cache=orders
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+    }
+
+    public Optional<Order> get(String orderId, Function<String, Optional<Order>> loader) {
+        // Missing orders are not cached, so a lookup that races a create will see it on the next poll
+        return Optional.ofNullable(cache.get(orderId, id -> loader.apply(id).orElse(null)));
+    }
+
+    // Evicts now and again once the surrounding transaction completes, so a reader that repopulated
+    // the entry from the pre-commit row in between cannot leave a stale value behind.
+    public void invalidate(String orderId) {
+        cache.invalidate(orderId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(orderId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<String> orderIds) {
+        cache.invalidateAll(orderIds);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(orderIds);
+                }
+            });
+        }
+    }
+}
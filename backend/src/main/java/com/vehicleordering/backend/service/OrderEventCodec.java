@@ -0,0 +1,181 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compact binary encoding of the order events the frontend publishes to Kafka.
+//
+// Layout (version 1):
+//   0x00                 magic byte; JSON never starts with it, so both formats can share the topic
+//   0x01                 schema version
+//   string orderId, customerName, email, phone, model, color, wheels, specialRequests
+//   varint featureCount + 1 (0 = no list), followed by that many strings
+// A string is varint byteLength + 1 (0 = null) followed by its UTF-8 bytes. Varints are unsigned LEB128.
+//
+// New fields are only ever appended under a new version number; decoders keep reading every older version.
+public final class OrderEventCodec {
+
+    public static final byte MAGIC = 0x00;
+    public static final byte VERSION_1 = 0x01;
+
+    private static final int MAX_FEATURES = 256;
+
+    private OrderEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Order order) {
+        Writer writer = new Writer(128);
+        writer.buffer[writer.position++] = MAGIC;
+        writer.buffer[writer.position++] = VERSION_1;
+        writer.writeString(order.getOrderId());
+        writer.writeString(order.getCustomerName());
+        writer.writeString(order.getEmail());
+        writer.writeString(order.getPhone());
+        writer.writeString(order.getModel());
+        writer.writeString(order.getColor());
+        writer.writeString(order.getWheels());
+        writer.writeString(order.getSpecialRequests());
+
+        List<String> features = order.getFeatures();
+        if (features == null) {
+            writer.writeVarint(0);
+        } else {
+            writer.writeVarint(features.size() + 1);
+            for (String feature : features) {
+                writer.writeString(feature);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    // Reads fields straight out of the record bytes into the entity; no token stream or tree in between
+    public static Order decode(byte[] data) {
+        if (!isBinary(data) || data.length < 2) {
+            throw new IllegalArgumentException("Not a binary order event");
+        }
+        if (data[1] != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported order event version " + data[1]);
+        }
+
+        Reader reader = new Reader(data, 2);
+        Order order = new Order();
+        order.setOrderId(reader.readString());
+        order.setCustomerName(reader.readString());
+        order.setEmail(reader.readString());
+        order.setPhone(reader.readString());
+        order.setModel(reader.readString());
+        order.setColor(reader.readString());
+        order.setWheels(reader.readString());
+        order.setSpecialRequests(reader.readString());
+
+        int featureCount = reader.readVarint();
+        if (featureCount > 0) {
+            featureCount--;
+            if (featureCount > MAX_FEATURES) {
+                throw new IllegalArgumentException("Order event has " + featureCount + " features");
+            }
+            List<String> features = new ArrayList<>(featureCount);
+            for (int i = 0; i < featureCount; i++) {
+                features.add(reader.readString());
+            }
+            order.setFeatures(features);
+        }
+
+        if (reader.position != data.length) {
+            throw new IllegalArgumentException("Trailing bytes after order event");
+        }
+        return order;
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeVarint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private String readString() {
+            int length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("Truncated order event");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("Truncated order event");
+                }
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        throw new IllegalArgumentException("Invalid length in order event");
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid length in order event");
+        }
+    }
+}
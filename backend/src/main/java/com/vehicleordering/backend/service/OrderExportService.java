@@ -0,0 +1,105 @@
+package com.vehicleordering.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.entity.ArchivedOrder;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+    private static final int CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final boolean archiveEnabled;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              @Value("${orders.archive.enabled:false}") boolean archiveEnabled,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archiveEnabled = archiveEnabled;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // Writes matching orders as newline-delimited JSON. Rows are read through a forward-only cursor in
+    // chunks; each chunk's features are batch-loaded together and the chunk is detached once written,
+    // so memory use does not grow with the size of the result. In archival mode the archived orders follow
+    // the live ones, each part in id order. Both cursors read in the same transaction, so under MySQL's
+    // repeatable-read snapshot an order archived meanwhile is written exactly once.
+    @Transactional(readOnly = true)
+    public long exportOrders(String email, Order.OrderStatus status,
+                             LocalDateTime startDate, LocalDateTime endDate,
+                             OutputStream outputStream) throws IOException {
+        logger.info("Exporting orders (email={}, status={}, from={}, to={})", email, status, startDate, endDate);
+
+        long exported = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            try (Stream<Order> orders = orderRepository.streamOrders(email, status, startDate, endDate)) {
+                exported += writeInChunks(generator, orders, Function.identity());
+            }
+            if (archiveEnabled) {
+                try (Stream<ArchivedOrder> archived =
+                             archivedOrderRepository.streamOrders(email, status, startDate, endDate)) {
+                    exported += writeInChunks(generator, archived, ArchivedOrder::toOrder);
+                }
+            }
+        }
+
+        logger.info("Exported {} orders", exported);
+        return exported;
+    }
+
+    private <T> long writeInChunks(JsonGenerator generator, Stream<T> rows, Function<T, Order> toOrder)
+            throws IOException {
+        long written = 0;
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                writeChunk(generator, chunk, toOrder);
+                written += chunk.size();
+                chunk.clear();
+            }
+        }
+        return written;
+    }
+
+    private <T> void writeChunk(JsonGenerator generator, List<T> chunk, Function<T, Order> toOrder) throws IOException {
+        for (T row : chunk) {
+            generator.writeObject(toOrder.apply(row));
+            generator.writeRaw('\n');
+        }
+        for (T row : chunk) {
+            entityManager.detach(row);
+        }
+        generator.flush();
+    }
+}
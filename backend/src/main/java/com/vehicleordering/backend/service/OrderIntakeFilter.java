@@ -0,0 +1,191 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over the orderIds created recently, in front of the unique constraint. A negative answer is
+// definite, so the usual new order is inserted without a lookup; only a possible hit costs an exact query.
+// Two generations of expected-insertions ids each are kept: when the current one fills it becomes the
+// previous one and the oldest is dropped, so the false positive rate stays bounded as intake continues.
+// Loaded from the database at startup and kept current by OrderService after each commit. Orders created on
+// other nodes are not seen; those duplicates still reach the constraint.
+@Component
+public class OrderIntakeFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeFilter.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration window;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    // Metrics
+    private final Counter negativeCounter;
+    private final Counter positiveCounter;
+
+    public OrderIntakeFilter(OrderRepository orderRepository, MeterRegistry meterRegistry,
+                             @Value("${orders.intake.filter.expected-insertions:1000000}") int expectedInsertions,
+                             @Value("${orders.intake.filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${orders.intake.filter.window:7d}") Duration window) {
+        this.orderRepository = orderRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.window = window;
+        this.current = new Generation(expectedInsertions, falsePositiveRate);
+        this.previous = new Generation(expectedInsertions, falsePositiveRate);
+
+        // positive minus orders.intake.duplicates is the false positive count
+        this.negativeCounter = Counter.builder("orders.intake.filter")
+                .description("Number of orderIds checked against the intake filter, by answer")
+                .tag("result", "negative")
+                .register(meterRegistry);
+
+        this.positiveCounter = Counter.builder("orders.intake.filter")
+                .description("Number of orderIds checked against the intake filter, by answer")
+                .tag("result", "positive")
+                .register(meterRegistry);
+    }
+
+    // Runs before listener containers start, so the first poll is already filtered
+    @PostConstruct
+    public void load() {
+        Long fromId = orderRepository.findFirstIdCreatedSince(LocalDateTime.now().minus(window));
+        if (fromId == null) {
+            logger.info("Loaded 0 recent orderIds into the intake filter");
+            return;
+        }
+
+        long afterId = fromId - 1;
+        int loaded = 0;
+        List<Object[]> rows;
+        do {
+            rows = orderRepository.findOrderIdsAfter(afterId, PageRequest.ofSize(LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                afterId = (Long) row[0];
+                add((String) row[1]);
+            }
+            loaded += rows.size();
+        } while (rows.size() == LOAD_PAGE_SIZE);
+        logger.info("Loaded {} recent orderIds into the intake filter", loaded);
+    }
+
+    public boolean mightContain(String orderId) {
+        long hash = hash(orderId);
+        boolean positive = current.mightContain(hash) || previous.mightContain(hash);
+        (positive ? positiveCounter : negativeCounter).increment();
+        return positive;
+    }
+
+    // Added after commit: a rolled-back insert must not turn its retry into a lookup
+    public void recordCreated(Collection<Order> orders) {
+        List<String> orderIds = orders.stream().map(Order::getOrderId).toList();
+        afterCommit(() -> orderIds.forEach(this::add));
+    }
+
+    private void add(String orderId) {
+        Generation generation = current;
+        if (generation.insertions.incrementAndGet() > expectedInsertions) {
+            generation = rotate(generation);
+        }
+        generation.put(hash(orderId));
+    }
+
+    private synchronized Generation rotate(Generation full) {
+        if (current == full) {
+            // previous is replaced first, so a reader never sees an id missing from both generations
+            previous = full;
+            current = new Generation(expectedInsertions, falsePositiveRate);
+        }
+        return current;
+    }
+
+    // FNV-1a over the chars, then the MurmurHash3 finalizer so both 32-bit halves are well mixed
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicInteger insertions = new AtomicInteger();
+
+        private Generation(int expectedInsertions, double falsePositiveRate) {
+            double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            int words = (int) Math.max(1, Math.ceil(optimalBits / Long.SIZE));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * Long.SIZE;
+            this.hashCount = (int) Math.max(1, Math.round(bitCount / (double) expectedInsertions * Math.log(2)));
+        }
+
+        // Double hashing: probe i is h1 + i * h2, which behaves like k independent hashes
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits.get(word) & mask) == 0) {
+                    bits.getAndAccumulate(word, mask, (value, add) -> value | add);
+                }
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains the order outbox: claims due events in batches, runs their side effects in parallel and
+// records the outcome of the whole batch in one transaction. An outcome is only recorded once its side
+// effect has really stopped, and the lease is renewed until then, so no other pod starts the same event
+// while an earlier attempt could still take effect.
+@Component
+public class OrderOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+    private final OrderOutboxService outboxService;
+    private final OrderRepository orderRepository;
+    private final PdfService pdfService;
+    private final LambdaService lambdaService;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService poller;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final Duration attemptTimeout;
+    private final Duration leaseRenewalInterval;
+    private final Duration retention;
+    private final Timer batchTimer;
+
+    public OrderOutboxDispatcher(OrderOutboxService outboxService,
+                                 OrderRepository orderRepository,
+                                 PdfService pdfService,
+                                 LambdaService lambdaService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${orders.outbox.poll-interval-ms:500}") long pollIntervalMs,
+                                 @Value("${orders.outbox.batch-size:100}") int batchSize,
+                                 @Value("${orders.outbox.workers:16}") int workerCount,
+                                 @Value("${orders.outbox.lease:60s}") Duration lease,
+                                 @Value("${orders.outbox.attempt-timeout:30s}") Duration attemptTimeout,
+                                 @Value("${orders.outbox.retention:7d}") Duration retention) {
+        this.outboxService = outboxService;
+        this.orderRepository = orderRepository;
+        this.pdfService = pdfService;
+        this.lambdaService = lambdaService;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.attemptTimeout = attemptTimeout;
+        this.leaseRenewalInterval = lease.dividedBy(3);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "order-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.batchTimer = Timer.builder("orders.outbox.batch.duration")
+                .description("Time taken to dispatch one batch of order side effects")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        poller.schedule(this::poll, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // One batch per run on the outbox's own thread, so a backlog never holds up Spring's shared scheduler.
+    // A full batch means more is due and the next run follows at once; otherwise it waits a poll interval.
+    private void poll() {
+        boolean full = false;
+        try {
+            full = dispatch();
+        } catch (Exception e) {
+            logger.error("Outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            if (!poller.isShutdown()) {
+                poller.schedule(this::poll, full ? 0 : pollIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public boolean dispatch() {
+        List<OrderOutboxEvent> events = outboxService.claimDue(batchSize);
+        if (!events.isEmpty()) {
+            batchTimer.record(() -> dispatchBatch(events));
+        }
+        return events.size() == batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox.purge-interval-ms:3600000}")
+    public void purgeCompleted() {
+        int purged = outboxService.purgeCompletedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} completed outbox events", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        workers.shutdown();
+    }
+
+    private void dispatchBatch(List<OrderOutboxEvent> events) {
+        logger.debug("Dispatching {} outbox events", events.size());
+
+        List<Attempt> attempts = events.stream().map(Attempt::new).toList();
+        attempts.forEach(attempt -> workers.execute(attempt::run));
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                attempts.stream().map(attempt -> attempt.ended).toArray(CompletableFuture[]::new));
+        // Each attempt's timeout runs from when a worker starts it; queued attempts only wait for a worker
+        long nextRenewal = System.nanoTime() + leaseRenewalInterval.toNanos();
+        while (!all.isDone()) {
+            long now = System.nanoTime();
+            long wait = nextRenewal - now;
+            for (Attempt attempt : attempts) {
+                long untilTimeout = attempt.untilTimeout(now);
+                if (untilTimeout <= 0) {
+                    attempt.cancel();
+                } else {
+                    wait = Math.min(wait, untilTimeout);
+                }
+            }
+            try {
+                all.get(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (System.nanoTime() - nextRenewal >= 0) {
+                    outboxService.renewLeases(attempts.stream()
+                            .filter(attempt -> !attempt.ended.isDone())
+                            .map(attempt -> attempt.event.getId())
+                            .toList());
+                    nextRenewal = System.nanoTime() + leaseRenewalInterval.toNanos();
+                }
+            } catch (ExecutionException e) {
+                // allOf only fails once every attempt has ended; the outcomes below carry the errors
+            } catch (InterruptedException e) {
+                // Shutting down: nothing is recorded and the leases run out, so another pod picks these up
+                attempts.forEach(Attempt::cancel);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        List<OrderOutboxService.Outcome> outcomes = attempts.stream()
+                .map(attempt -> attempt.ended
+                        .handle((pdfUrl, error) -> error == null
+                                ? OrderOutboxService.Outcome.succeeded(attempt.event.getId(), pdfUrl)
+                                : OrderOutboxService.Outcome.failed(attempt.event.getId(), describe(error)))
+                        .join())
+                .toList();
+        outboxService.recordOutcomes(outcomes);
+    }
+
+    private static String idempotencyKey(OrderOutboxEvent event) {
+        return "order-outbox-" + event.getId();
+    }
+
+    private Order loadOrder(String orderId) {
+        return orderRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId));
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    // One run of an event's side effect. ended completes with the PDF URL for GENERATE_PDF and null for the
+    // Lambda triggers, and only once the work has stopped: after a timeout a running PDF is interrupted and
+    // ends when its thread leaves it, while a Lambda invocation already sent cannot be recalled and ends
+    // when the client gives up on it (aws.lambda.api-call-timeout).
+    private final class Attempt {
+
+        private final OrderOutboxEvent event;
+        private final CompletableFuture<String> ended = new CompletableFuture<>();
+        private boolean started;    // guarded by this
+        private long startedNanos;  // guarded by this
+        private boolean cancelled;  // guarded by this
+        private Thread runner;      // guarded by this
+
+        private Attempt(OrderOutboxEvent event) {
+            this.event = event;
+        }
+
+        private void run() {
+            synchronized (this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+                startedNanos = System.nanoTime();
+                runner = Thread.currentThread();
+            }
+            try {
+                Order order = loadOrder(event.getOrderId());
+                switch (event.getType()) {
+                    case GENERATE_PDF -> ended.complete(pdfService.generateAndUploadOrderSummary(order));
+                    case PROCESS_PAYMENT -> endWith(lambdaService.triggerPaymentProcessing(order, idempotencyKey(event)));
+                    case SEND_EMAIL -> endWith(lambdaService.triggerEmailNotification(order));
+                }
+            } catch (Throwable e) {
+                ended.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                // An interrupt that landed just as the work finished must not reach the worker's next task
+                Thread.interrupted();
+            }
+        }
+
+        private void endWith(CompletableFuture<Void> invocation) {
+            invocation.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    ended.completeExceptionally(error);
+                } else {
+                    ended.complete(null);
+                }
+            });
+        }
+
+        // Long.MAX_VALUE while queued, or once cancelled
+        private synchronized long untilTimeout(long now) {
+            if (!started || cancelled || ended.isDone()) {
+                return Long.MAX_VALUE;
+            }
+            return startedNanos + attemptTimeout.toNanos() - now;
+        }
+
+        // Only on shutdown does this reach a queued attempt; its outcome is then never recorded
+        private synchronized void cancel() {
+            cancelled = true;
+            if (!started) {
+                started = true;
+                ended.completeExceptionally(new TimeoutException("Cancelled before starting"));
+            } else if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
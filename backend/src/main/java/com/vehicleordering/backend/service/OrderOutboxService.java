@@ -0,0 +1,192 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import com.vehicleordering.backend.repository.OrderOutboxRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class OrderOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // Result of running one claimed event; pdfUrl is only set for GENERATE_PDF
+    public record Outcome(Long eventId, boolean success, String pdfUrl, String error) {
+
+        public static Outcome succeeded(Long eventId, String pdfUrl) {
+            return new Outcome(eventId, true, pdfUrl, null);
+        }
+
+        public static Outcome failed(Long eventId, String error) {
+            return new Outcome(eventId, false, null, error);
+        }
+    }
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final OrderCache orderCache;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    // Refreshed on a schedule rather than counted on every scrape
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    public OrderOutboxService(OrderOutboxRepository outboxRepository,
+                              OrderRepository orderRepository,
+                              OrderCache orderCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.outbox.max-attempts:10}") int maxAttempts,
+                              @Value("${orders.outbox.lease:60s}") Duration lease,
+                              @Value("${orders.outbox.initial-backoff:1s}") Duration initialBackoff,
+                              @Value("${orders.outbox.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.orderCache = orderCache;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        Gauge.builder("orders.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Order side effects waiting to be dispatched")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox.pending-refresh-ms:15000}")
+    @Transactional(readOnly = true)
+    public void refreshPendingCount() {
+        pendingCount.set(outboxRepository.countByStatus(OrderOutboxEvent.Status.PENDING));
+    }
+
+    // Joins the caller's transaction so the events commit or roll back together with the orders
+    public void enqueueOrderCreated(Collection<Order> orders) {
+        List<OrderOutboxEvent> events = new ArrayList<>(orders.size() * 2);
+        for (Order order : orders) {
+            events.add(new OrderOutboxEvent(order.getOrderId(), OrderOutboxEvent.Type.GENERATE_PDF));
+            events.add(new OrderOutboxEvent(order.getOrderId(), OrderOutboxEvent.Type.PROCESS_PAYMENT));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    // Takes a lease on up to batchSize due events by pushing their next attempt past the lease.
+    // If this pod dies while running them, they become due again once the lease runs out.
+    public List<OrderOutboxEvent> claimDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutboxEvent> due = outboxRepository.findDueForUpdate(
+                OrderOutboxEvent.Status.PENDING, now, PageRequest.ofSize(batchSize));
+
+        for (OrderOutboxEvent event : due) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    // Called while claimed events are still running, so their lease never runs out under a live attempt
+    public void renewLeases(Collection<Long> eventIds) {
+        if (!eventIds.isEmpty()) {
+            outboxRepository.extendLease(eventIds, OrderOutboxEvent.Status.PENDING, LocalDateTime.now().plus(lease));
+        }
+    }
+
+    public void recordOutcomes(List<Outcome> outcomes) {
+        Map<Long, OrderOutboxEvent> events = outboxRepository
+                .findAllById(outcomes.stream().map(Outcome::eventId).toList())
+                .stream()
+                .collect(Collectors.toMap(OrderOutboxEvent::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutboxEvent> followUps = new ArrayList<>();
+
+        for (Outcome outcome : outcomes) {
+            OrderOutboxEvent event = events.get(outcome.eventId());
+            if (event == null) {
+                continue;
+            }
+
+            if (outcome.success()) {
+                event.setStatus(OrderOutboxEvent.Status.DONE);
+                event.setCompletedAt(now);
+                event.setLastError(null);
+                counter("orders.outbox.completed", event).increment();
+
+                // The email links to the PDF, so it is only queued once the PDF exists
+                if (event.getType() == OrderOutboxEvent.Type.GENERATE_PDF) {
+                    orderRepository.updatePdfUrl(event.getOrderId(), outcome.pdfUrl());
+                    orderCache.invalidate(event.getOrderId());
+                    followUps.add(new OrderOutboxEvent(event.getOrderId(), OrderOutboxEvent.Type.SEND_EMAIL));
+                }
+            } else {
+                event.setLastError(truncate(outcome.error()));
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OrderOutboxEvent.Status.FAILED);
+                    counter("orders.outbox.failed", event).increment();
+                    logger.error("Giving up on {} for order {} after {} attempts: {}",
+                            event.getType(), event.getOrderId(), event.getAttempts(), outcome.error());
+                } else {
+                    event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                    counter("orders.outbox.retried", event).increment();
+                    logger.warn("Retrying {} for order {} (attempt {}): {}",
+                            event.getType(), event.getOrderId(), event.getAttempts(), outcome.error());
+                }
+            }
+        }
+
+        outboxRepository.saveAll(followUps);
+    }
+
+    // Joins the caller's transaction, like enqueueOrderCreated. An attempt already running still finishes;
+    // recordOutcomes skips events that are gone.
+    public int discardPending(String orderId) {
+        return outboxRepository.deleteByOrderIdAndStatus(orderId, OrderOutboxEvent.Status.PENDING);
+    }
+
+    public int purgeCompletedBefore(LocalDateTime before) {
+        return outboxRepository.deleteCompletedBefore(OrderOutboxEvent.Status.DONE, before);
+    }
+
+    // Exponential backoff: initialBackoff, 2x, 4x ... capped at maxBackoff
+    private Duration backoff(int attempts) {
+        int exponent = Math.min(attempts - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private Counter counter(String name, OrderOutboxEvent event) {
+        return Counter.builder(name)
+                .tag("type", event.getType().name())
+                .register(meterRegistry);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
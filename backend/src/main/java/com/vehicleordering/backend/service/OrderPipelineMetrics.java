@@ -0,0 +1,138 @@
+package com.vehicleordering.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// One latency histogram per pipeline stage (orders.pipeline.stage.duration, tagged only by stage) plus a
+// short-lived per-order record of every stage, used to show a timing waterfall for the slowest recent orders.
+@Component
+public class OrderPipelineMetrics {
+
+    public enum Stage {
+        KAFKA("kafka"),
+        DB("db"),
+        PDF_RENDER("pdf_render"),
+        S3_UPLOAD("s3_upload"),
+        LAMBDA_PAYMENT("lambda_payment"),
+        LAMBDA_EMAIL("lambda_email"),
+        JWT("jwt");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    public record StageTiming(Stage stage, long startedAtMillis, long durationNanos) {
+    }
+
+    public record OrderTrace(String orderId, long startedAtMillis, long totalMillis, List<StageTiming> stages) {
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Cache<String, Queue<StageTiming>> traces;
+
+    public OrderPipelineMetrics(MeterRegistry meterRegistry,
+                                @Value("${orders.pipeline.trace.max-orders:10000}") long maxTracedOrders,
+                                @Value("${orders.pipeline.trace.ttl:15m}") Duration traceTtl) {
+        for (Stage stage : Stage.values()) {
+            // Histogram buckets for registries that aggregate them; client-side percentiles for CloudWatch
+            timers.put(stage, Timer.builder("orders.pipeline.stage.duration")
+                    .description("Time spent in each stage of the order pipeline")
+                    .tag("stage", stage.getTag())
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(1))
+                    .register(meterRegistry));
+        }
+
+        this.traces = Caffeine.newBuilder()
+                .maximumSize(maxTracedOrders)
+                .expireAfterWrite(traceTtl)
+                .build();
+    }
+
+    // Records a stage that is not tied to one order, started at startNanos (System.nanoTime) and ending now
+    public void record(Stage stage, long startNanos) {
+        timers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Records a stage that started at startNanos (System.nanoTime) and ends now
+    public void record(Stage stage, String orderId, long startNanos) {
+        recordDuration(stage, orderId, System.nanoTime() - startNanos);
+    }
+
+    // Records a stage of the given duration that ends now
+    public void record(Stage stage, String orderId, Duration duration) {
+        recordDuration(stage, orderId, duration.toNanos());
+    }
+
+    // Batch stages count once towards the histogram but appear in every order's waterfall
+    public void record(Stage stage, Collection<String> orderIds, long startNanos) {
+        long durationNanos = System.nanoTime() - startNanos;
+        timers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+        StageTiming timing = timing(stage, durationNanos);
+        for (String orderId : orderIds) {
+            trace(orderId, timing);
+        }
+    }
+
+    public Timer getTimer(Stage stage) {
+        return timers.get(stage);
+    }
+
+    public List<OrderTrace> slowestOrders(int limit) {
+        List<OrderTrace> orders = new ArrayList<>();
+        traces.asMap().forEach((orderId, timings) -> orders.add(toTrace(orderId, timings)));
+        orders.sort(Comparator.comparingLong(OrderTrace::totalMillis).reversed());
+        return orders.subList(0, Math.min(limit, orders.size()));
+    }
+
+    private void recordDuration(Stage stage, String orderId, long durationNanos) {
+        timers.get(stage).record(durationNanos, TimeUnit.NANOSECONDS);
+        trace(orderId, timing(stage, durationNanos));
+    }
+
+    private void trace(String orderId, StageTiming timing) {
+        traces.get(orderId, id -> new ConcurrentLinkedQueue<>()).add(timing);
+    }
+
+    private static StageTiming timing(Stage stage, long durationNanos) {
+        return new StageTiming(stage, System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                durationNanos);
+    }
+
+    private static OrderTrace toTrace(String orderId, Collection<StageTiming> timings) {
+        List<StageTiming> stages = new ArrayList<>(timings);
+        stages.sort(Comparator.comparingLong(StageTiming::startedAtMillis));
+
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (StageTiming timing : stages) {
+            start = Math.min(start, timing.startedAtMillis());
+            end = Math.max(end, timing.startedAtMillis() + TimeUnit.NANOSECONDS.toMillis(timing.durationNanos()));
+        }
+        return new OrderTrace(orderId, start, stages.isEmpty() ? 0 : end - start, stages);
+    }
+}
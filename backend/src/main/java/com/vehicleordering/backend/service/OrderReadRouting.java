@@ -0,0 +1,99 @@
+package com.vehicleordering.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vehicleordering.backend.config.ReplicaRoutingDataSource;
+import com.vehicleordering.backend.entity.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Marks the reads that may be served by a replica (see ReplicaRoutingDataSource), with read-your-own-writes:
+// orders and customer emails written in the last max-lag are remembered, and reads keyed by them stay on the
+// primary. Replicas lagging further than max-lag are out of
+// rotation (see ReplicaSet), so any replica still serving reads already has everything older than that.
+@Component
+public class OrderReadRouting {
+
+    private static final String EMAIL_PREFIX = "email:";
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public OrderReadRouting(@Value("${orders.datasource.replica.enabled:false}") boolean enabled,
+                            @Value("${orders.datasource.replica.max-lag:2s}") Duration maxLag,
+                            @Value("${orders.datasource.replica.recent-writes.max-size:100000}") long maxSize) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxLag)
+                .build();
+    }
+
+    public void recordWrite(Order order) {
+        recordWrites(List.of(order));
+    }
+
+    public void recordWrites(Collection<Order> orders) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(orders.size() * 2);
+        for (Order order : orders) {
+            keys.add(order.getOrderId());
+            if (order.getEmail() != null) {
+                keys.add(EMAIL_PREFIX + order.getEmail());
+            }
+        }
+        afterCommit(keys);
+    }
+
+    // Bulk status updates only know the ids, so listings by email may briefly lag for those orders
+    public void recordStatusChanges(Collection<String> orderIds) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(List.copyOf(orderIds));
+    }
+
+    public <T> T readOrder(String orderId, Supplier<T> read) {
+        return read(orderId, read);
+    }
+
+    public <T> T readByEmail(String email, Supplier<T> read) {
+        return read(EMAIL_PREFIX + email, read);
+    }
+
+    // Listings not tied to one order or customer; a page may miss orders written within max-lag
+    public <T> T readListing(Supplier<T> read) {
+        return enabled ? ReplicaRoutingDataSource.onReplica(read) : read.get();
+    }
+
+    private <T> T read(String key, Supplier<T> read) {
+        if (!enabled || recentWrites.getIfPresent(key) != null) {
+            return read.get();
+        }
+        return ReplicaRoutingDataSource.onReplica(read);
+    }
+
+    // The window starts at commit, which is when replication of the write starts
+    private void afterCommit(List<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(key -> recentWrites.put(key, Boolean.TRUE));
+                }
+            });
+        } else {
+            keys.forEach(key -> recentWrites.put(key, Boolean.TRUE));
+        }
+    }
+}
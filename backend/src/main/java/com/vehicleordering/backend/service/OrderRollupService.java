@@ -0,0 +1,351 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.dto.RollupReport;
+import com.vehicleordering.backend.dto.RollupRow;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import com.vehicleordering.backend.repository.OrderRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+// Keeps order_rollups and order_feature_rollups in step with the orders. OrderService hands every create,
+// status change and delete to this service inside its own transaction; the deltas are only merged into a
+// pending set once that transaction commits, and flush() writes the pending set in one transaction per
+// interval. Order transactions never lock the shared rollup rows, and a busy row gets one upsert per flush
+// instead of one per order. Deltas not yet flushed when a node dies are lost; rebuildDay recomputes a day
+// from the orders, and is also how history from before the rollups existed gets loaded.
+// Revenue is the amount stored on the order at creation. Orders from before amounts were stored are valued
+// at the current catalog, consistently on the way in and out.
+@Service
+@Transactional
+public class OrderRollupService {
+
+    public enum Dimension {
+        DAY, MODEL, COLOR, WHEELS, STATUS, FEATURE
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupService.class);
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+
+    private final OrderRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final PricingEngine pricingEngine;
+    private final TransactionTemplate flushTransaction;
+
+    // Committed but not yet written, guarded by this
+    private Deltas pending;
+    // Held by a flush from taking the pending deltas until they are written or put back, and by a rebuild
+    // until its transaction commits, so neither writes a day the other is in the middle of
+    private final Lock writeLock = new ReentrantLock();
+
+    public OrderRollupService(OrderRollupRepository rollupRepository,
+                              OrderRepository orderRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              PricingEngine pricingEngine,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.pricingEngine = pricingEngine;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.pending = new Deltas(pricingEngine.getCatalog());
+    }
+
+    public void recordCreated(Collection<Order> orders) {
+        Deltas deltas = new Deltas(pricingEngine.getCatalog());
+        for (Order order : orders) {
+            deltas.add(order.getCreatedAt(), order.getModel(), order.getColor(), order.getWheels(),
+                    order.getFeatures(), order.getAmountCents(), order.getStatus(), 1);
+        }
+        afterCommit(deltas);
+    }
+
+    public void recordTransition(Order order, Order.OrderStatus from, Order.OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        Deltas deltas = new Deltas(pricingEngine.getCatalog());
+        deltas.add(order.getCreatedAt(), order.getModel(), order.getColor(), order.getWheels(),
+                order.getFeatures(), order.getAmountCents(), from, -1);
+        deltas.add(order.getCreatedAt(), order.getModel(), order.getColor(), order.getWheels(),
+                order.getFeatures(), order.getAmountCents(), to, 1);
+        afterCommit(deltas);
+    }
+
+    // Bulk variant for orders moved without being loaded: the rollup columns and features are fetched as rows
+    public void recordTransitions(Map<String, Order.OrderStatus> previousStatuses, Order.OrderStatus to) {
+        if (previousStatuses.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> features = featuresByOrder(orderRepository.findFeatures(previousStatuses.keySet()));
+
+        Deltas deltas = new Deltas(pricingEngine.getCatalog());
+        for (Object[] row : orderRepository.findRollupFacts(previousStatuses.keySet())) {
+            String orderId = (String) row[1];
+            Order.OrderStatus from = previousStatuses.get(orderId);
+            if (from == null || from == to) {
+                continue;
+            }
+            List<String> orderFeatures = features.get(orderId);
+            deltas.add((LocalDateTime) row[2], (String) row[3], (String) row[4], (String) row[5], orderFeatures,
+                    (Long) row[7], from, -1);
+            deltas.add((LocalDateTime) row[2], (String) row[3], (String) row[4], (String) row[5], orderFeatures,
+                    (Long) row[7], to, 1);
+        }
+        afterCommit(deltas);
+    }
+
+    public void recordDeleted(Order order) {
+        Deltas deltas = new Deltas(pricingEngine.getCatalog());
+        deltas.add(order.getCreatedAt(), order.getModel(), order.getColor(), order.getWheels(),
+                order.getFeatures(), order.getAmountCents(), order.getStatus(), -1);
+        afterCommit(deltas);
+    }
+
+    // Writes the pending deltas in one transaction. On failure they are put back for the next flush.
+    @Scheduled(fixedDelayString = "${orders.rollups.flush-interval-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        writeLock.lock();
+        try {
+            Deltas flushing;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                flushing = pending;
+                pending = new Deltas(pricingEngine.getCatalog());
+            }
+            try {
+                flushTransaction.executeWithoutResult(status -> apply(flushing));
+            } catch (RuntimeException e) {
+                logger.warn("Could not flush order rollups, retrying with the next flush: {}", e.getMessage());
+                synchronized (this) {
+                    pending.merge(flushing);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Replaces the day's rollups with totals recomputed from the orders and archive tables.
+    // Returns the number of orders counted.
+    // Only past days can be rebuilt: a delta committed while the scan runs may or may not be in what it
+    // read, and new orders keep arriving for the current day. Status changes to older orders are rare
+    // enough that one landing during a rebuild is left to the next rebuild of that day.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildDay(LocalDate day) {
+        if (!day.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Only days before today can be rebuilt");
+        }
+        writeLock.lock();
+        try {
+            // Deltas already committed are part of what is recounted, so they must not be added on top afterwards
+            synchronized (this) {
+                pending.removeDay(day);
+            }
+            return flushTransaction.execute(status -> {
+                rollupRepository.deleteDay(day);
+                rollupRepository.deleteFeatureDay(day);
+
+                Deltas deltas = new Deltas(pricingEngine.getCatalog());
+                LocalDateTime start = day.atStartOfDay();
+                LocalDateTime end = day.plusDays(1).atStartOfDay();
+                Pageable page = PageRequest.ofSize(BACKFILL_PAGE_SIZE);
+
+                int counted = scan(deltas, page,
+                        afterId -> orderRepository.findRollupFactsBetween(start, end, afterId, page),
+                        orderRepository::findFeatures);
+                counted += scan(deltas, page,
+                        afterId -> archivedOrderRepository.findRollupFactsBetween(start, end, afterId, page),
+                        archivedOrderRepository::findFeatures);
+
+                apply(deltas);
+                return counted;
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RollupReport query(Dimension dimension, LocalDate from, LocalDate to, Set<Order.OrderStatus> statuses) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<Object[]> rows = switch (dimension) {
+            case DAY -> rollupRepository.sumByDay(from, to, statuses);
+            case MODEL -> rollupRepository.sumByModel(from, to, statuses);
+            case COLOR -> rollupRepository.sumByColor(from, to, statuses);
+            case WHEELS -> rollupRepository.sumByWheels(from, to, statuses);
+            case STATUS -> rollupRepository.sumByStatus(from, to, statuses);
+            case FEATURE -> rollupRepository.sumByFeature(from, to, statuses);
+        };
+
+        List<RollupRow> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new RollupRow(String.valueOf(row[0]), ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        return new RollupReport(from, to, dimension.name(), statuses, pricingEngine.getCatalog().getCurrency(), result);
+    }
+
+    private static int scan(Deltas deltas, Pageable page,
+                            LongFunction<List<Object[]>> nextPage,
+                            Function<Collection<String>, List<Object[]>> featureLookup) {
+        int counted = 0;
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = nextPage.apply(afterId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<String> orderIds = rows.stream().map(row -> (String) row[1]).toList();
+            Map<String, List<String>> features = featuresByOrder(featureLookup.apply(orderIds));
+            for (Object[] row : rows) {
+                deltas.add((LocalDateTime) row[2], (String) row[3], (String) row[4], (String) row[5],
+                        features.get(row[1]), (Long) row[7], (Order.OrderStatus) row[6], 1);
+            }
+            counted += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        } while (rows.size() == page.getPageSize());
+        return counted;
+    }
+
+    private static Map<String, List<String>> featuresByOrder(List<Object[]> rows) {
+        Map<String, List<String>> features = new HashMap<>();
+        for (Object[] row : rows) {
+            features.computeIfAbsent((String) row[0], orderId -> new ArrayList<>()).add((String) row[1]);
+        }
+        return features;
+    }
+
+    private void afterCommit(Deltas deltas) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addPending(deltas);
+                }
+            });
+        } else {
+            addPending(deltas);
+        }
+    }
+
+    private synchronized void addPending(Deltas deltas) {
+        pending.merge(deltas);
+    }
+
+    // Keys are written in sorted order so concurrent transactions lock rollup rows in the same sequence
+    private void apply(Deltas deltas) {
+        deltas.orders.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rollupRepository.upsert(key.day(), key.model(), key.color(), key.wheels(), key.status().name(),
+                        delta[0], delta[1]);
+            }
+        });
+        deltas.features.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rollupRepository.upsertFeature(key.day(), key.feature(), key.status().name(), delta[0], delta[1]);
+            }
+        });
+    }
+
+    private record OrderKey(LocalDate day, String model, String color, String wheels, Order.OrderStatus status) {
+        static final Comparator<OrderKey> ORDER = Comparator.comparing(OrderKey::day)
+                .thenComparing(OrderKey::model)
+                .thenComparing(OrderKey::color)
+                .thenComparing(OrderKey::wheels)
+                .thenComparing(OrderKey::status);
+    }
+
+    private record FeatureKey(LocalDate day, String feature, Order.OrderStatus status) {
+        static final Comparator<FeatureKey> ORDER = Comparator.comparing(FeatureKey::day)
+                .thenComparing(FeatureKey::feature)
+                .thenComparing(FeatureKey::status);
+    }
+
+    // Net [orderCount, revenueCents] per rollup row, accumulated before anything is written
+    private static final class Deltas {
+
+        private final PricingCatalog catalog;
+        private final Map<OrderKey, long[]> orders = new TreeMap<>(OrderKey.ORDER);
+        private final Map<FeatureKey, long[]> features = new TreeMap<>(FeatureKey.ORDER);
+
+        private Deltas(PricingCatalog catalog) {
+            this.catalog = catalog;
+        }
+
+        private void add(LocalDateTime createdAt, String model, String color, String wheels,
+                         List<String> orderFeatures, Long amountCents, Order.OrderStatus status, int sign) {
+            LocalDate day = (createdAt != null ? createdAt : LocalDateTime.now()).toLocalDate();
+            long revenue = sign * (amountCents != null ? amountCents : catalog.priceCents(model, wheels, orderFeatures));
+
+            accumulate(orders, new OrderKey(day, nonNull(model), nonNull(color), nonNull(wheels), status), sign, revenue);
+            if (orderFeatures != null) {
+                for (String feature : orderFeatures) {
+                    accumulate(features, new FeatureKey(day, nonNull(feature), status), sign, revenue);
+                }
+            }
+        }
+
+        private void merge(Deltas other) {
+            other.orders.forEach((key, delta) -> accumulate(orders, key, delta[0], delta[1]));
+            other.features.forEach((key, delta) -> accumulate(features, key, delta[0], delta[1]));
+        }
+
+        private void removeDay(LocalDate day) {
+            orders.keySet().removeIf(key -> key.day().equals(day));
+            features.keySet().removeIf(key -> key.day().equals(day));
+        }
+
+        private boolean isEmpty() {
+            return orders.isEmpty() && features.isEmpty();
+        }
+
+        private static <K> void accumulate(Map<K, long[]> deltas, K key, long count, long revenue) {
+            long[] delta = deltas.computeIfAbsent(key, ignored -> new long[2]);
+            delta[0] += count;
+            delta[1] += revenue;
+        }
+
+        private static String nonNull(String value) {
+            return value != null ? value : "";
+        }
+    }
+}
@@ -1,38 +1,102 @@
 package com.vehicleordering.backend.service;
 
+import com.vehicleordering.backend.dto.OrderPage;
+import com.vehicleordering.backend.dto.OrderSummary;
+import com.vehicleordering.backend.dto.StatusUpdateResult;
+import com.vehicleordering.backend.entity.ArchivedOrder;
 import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
 import com.vehicleordering.backend.repository.OrderRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 
 @Service
 @Transactional
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_STATUS_UPDATES = 10_000;
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 500;
 
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final boolean archiveEnabled;
+    private final OrderArchiveService archiveService;
+    private final OrderCache orderCache;
+    private final OrderStatusCounts orderStatusCounts;
+    private final OrderOutboxService orderOutboxService;
+    private final OrderRollupService orderRollupService;
+    private final OrderReadRouting readRouting;
+    private final OrderStatusBroadcaster statusBroadcaster;
+    private final OrderIntakeFilter intakeFilter;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final PricingEngine pricingEngine;
     private final MeterRegistry meterRegistry;
 
     // Metrics
     private final Counter orderCreatedCounter;
     private final Counter orderProcessedCounter;
     private final Counter orderErrorCounter;
+    private final Counter duplicateOrderCounter;
     private final Timer orderProcessingTimer;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+    public OrderService(OrderRepository orderRepository,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        @Value("${orders.archive.enabled:false}") boolean archiveEnabled,
+                        OrderArchiveService archiveService,
+                        OrderCache orderCache,
+                        OrderStatusCounts orderStatusCounts,
+                        OrderOutboxService orderOutboxService,
+                        OrderRollupService orderRollupService,
+                        OrderReadRouting readRouting,
+                        OrderStatusBroadcaster statusBroadcaster,
+                        OrderIntakeFilter intakeFilter,
+                        OrderPipelineMetrics pipelineMetrics,
+                        PricingEngine pricingEngine,
+                        MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveService = archiveService;
+        this.orderCache = orderCache;
+        this.orderStatusCounts = orderStatusCounts;
+        this.orderOutboxService = orderOutboxService;
+        this.orderRollupService = orderRollupService;
+        this.readRouting = readRouting;
+        this.statusBroadcaster = statusBroadcaster;
+        this.intakeFilter = intakeFilter;
+        this.pipelineMetrics = pipelineMetrics;
+        this.pricingEngine = pricingEngine;
         this.meterRegistry = meterRegistry;
 
         // Initialize metrics
@@ -48,18 +112,41 @@ public class OrderService {
                 .description("Number of order processing errors")
                 .register(meterRegistry);
 
+        this.duplicateOrderCounter = Counter.builder("orders.intake.duplicates")
+                .description("Number of orders not created because their orderId was already stored")
+                .register(meterRegistry);
+
         this.orderProcessingTimer = Timer.builder("orders.processing.duration")
                 .description("Time taken to process orders")
                 .register(meterRegistry);
     }
 
+    // Idempotent on orderId: resending an order that is already stored returns the stored one
     public Order createOrder(Order order) {
         logger.info("Creating new order for customer: {}", order.getCustomerName());
 
         Timer.Sample sample = Timer.start(meterRegistry);
+        long startNanos = System.nanoTime();
 
         try {
+            Optional<Order> existing = findStoredOrder(order.getOrderId());
+            if (existing.isPresent()) {
+                duplicateOrderCounter.increment();
+                logger.info("Order {} already exists, not creating it again", order.getOrderId());
+                return existing.get();
+            }
+
+            priceOrders(List.of(order));
             Order savedOrder = orderRepository.save(order);
+            // PDF, S3 upload and Lambda triggers run later from the outbox, committed with the order
+            orderOutboxService.enqueueOrderCreated(List.of(savedOrder));
+            orderRollupService.recordCreated(List.of(savedOrder));
+            pipelineMetrics.record(OrderPipelineMetrics.Stage.DB, savedOrder.getOrderId(), startNanos);
+            orderCache.invalidate(savedOrder.getOrderId());
+            readRouting.recordWrite(savedOrder);
+            intakeFilter.recordCreated(List.of(savedOrder));
+            statusBroadcaster.publishCreated(List.of(savedOrder));
+            orderStatusCounts.recordCreated(savedOrder.getStatus());
             orderCreatedCounter.increment();
 
             logger.info("Order created successfully with ID: {}", savedOrder.getOrderId());
@@ -74,16 +161,169 @@ public class OrderService {
         }
     }
 
+    // Orders whose orderId is already stored are skipped; returns only the orders created by this call
+    public List<Order> createOrders(List<Order> orders) {
+        logger.info("Creating batch of {} orders", orders.size());
+
+        long startNanos = System.nanoTime();
+
+        try {
+            List<Order> newOrders = withoutStoredOrders(orders);
+            if (newOrders.isEmpty()) {
+                return List.of();
+            }
+
+            priceOrders(newOrders);
+            List<Order> savedOrders = orderRepository.saveAll(newOrders);
+            orderOutboxService.enqueueOrderCreated(savedOrders);
+            orderRepository.flush();
+            orderRollupService.recordCreated(savedOrders);
+            pipelineMetrics.record(OrderPipelineMetrics.Stage.DB,
+                    savedOrders.stream().map(Order::getOrderId).toList(), startNanos);
+            readRouting.recordWrites(savedOrders);
+            intakeFilter.recordCreated(savedOrders);
+            statusBroadcaster.publishCreated(savedOrders);
+            orderCache.invalidateAll(savedOrders.stream().map(Order::getOrderId).toList());
+            orderStatusCounts.recordCreated(savedOrders);
+            orderCreatedCounter.increment(savedOrders.size());
+
+            logger.info("Batch of {} orders created successfully", savedOrders.size());
+            return savedOrders;
+
+        } catch (Exception e) {
+            orderErrorCounter.increment();
+            logger.error("Error creating order batch: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    // The amount is fixed at creation, so payment and revenue rollups keep agreeing when the catalog changes
+    private void priceOrders(Collection<Order> orders) {
+        PricingCatalog catalog = pricingEngine.getCatalog();
+        for (Order order : orders) {
+            if (order.getAmountCents() == null) {
+                order.setAmountCents(catalog.priceCents(order.getModel(), order.getWheels(), order.getFeatures()));
+            }
+        }
+    }
+
+    // Only orderIds the intake filter cannot rule out are looked up in the hot table, so a batch of new orders
+    // costs no query there. In archival mode the whole batch is also checked against the archive, which the
+    // filter's window does not reach and the unique constraint does not cover.
+    private List<Order> withoutStoredOrders(List<Order> orders) {
+        List<String> candidates = orders.stream()
+                .map(Order::getOrderId)
+                .filter(orderId -> orderId != null && intakeFilter.mightContain(orderId))
+                .toList();
+
+        Set<String> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            existing.addAll(orderRepository.findExistingOrderIds(candidates));
+        }
+        if (archiveEnabled) {
+            List<String> orderIds = orders.stream().map(Order::getOrderId).filter(Objects::nonNull).toList();
+            if (!orderIds.isEmpty()) {
+                existing.addAll(archivedOrderRepository.findExistingOrderIds(orderIds));
+            }
+        }
+        if (existing.isEmpty()) {
+            return orders;
+        }
+        duplicateOrderCounter.increment(existing.size());
+        logger.info("Skipping {} orders that already exist", existing.size());
+        return orders.stream()
+                .filter(order -> !existing.contains(order.getOrderId()))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> findExistingOrderIds(Collection<String> orderIds) {
+        Set<String> existing = new HashSet<>(orderRepository.findExistingOrderIds(orderIds));
+        if (archiveEnabled) {
+            existing.addAll(archivedOrderRepository.findExistingOrderIds(orderIds));
+        }
+        return existing;
+    }
+
+    // Cache hits must not open a transaction or borrow a connection; misses use the repository's read-only
+    // transaction, on a replica unless this order was written within the replica lag window
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Order> getOrderById(String orderId) {
-        return orderRepository.findByOrderId(orderId);
+        return orderCache.get(orderId, id -> readRouting.readOrder(id, () -> findOrder(id)));
+    }
+
+    // Bypasses the cache and the replicas: for reads that must not miss a change that has just committed
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Order> getOrderFromPrimary(String orderId) {
+        return findOrder(orderId);
+    }
+
+    // The finders below that go through readRouting may run on a replica when replica routing is enabled;
+    // every other read stays on the primary
+    @Transactional(readOnly = true)
+    public OrderPage<Order> getOrdersByEmail(String email, long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readByEmail(email, () -> toPage(orderRepository.findByEmail(email, afterId, page), afterId,
+                beforeId -> archivedOrderRepository.findByEmail(email, afterId, beforeId, page), page));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<Order> getOrdersByStatus(Order.OrderStatus status, long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readListing(() -> toPage(orderRepository.findByStatus(status, afterId, page), afterId,
+                beforeId -> isArchivable(status)
+                        ? archivedOrderRepository.findByStatus(status, afterId, beforeId, page)
+                        : List.of(),
+                page));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<Order> getOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate,
+                                                  long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return toPage(orderRepository.findOrdersBetweenDates(startDate, endDate, afterId, page), afterId,
+                beforeId -> archivedOrderRepository.findOrdersBetweenDates(startDate, endDate, afterId, beforeId, page),
+                page);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrderSummaries(long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readListing(() -> toPage(withArchived(orderRepository.findSummaryPageAfter(afterId, page),
+                afterId, beforeId -> archivedOrderRepository.findSummaryPageAfter(afterId, beforeId, page), page,
+                OrderSummary::id), page, OrderSummary::id));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrderSummariesByEmail(String email, long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readByEmail(email, () -> toPage(withArchived(
+                orderRepository.findSummariesByEmail(email, afterId, page), afterId,
+                beforeId -> archivedOrderRepository.findSummariesByEmail(email, afterId, beforeId, page),
+                page, OrderSummary::id),
+                page, OrderSummary::id));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<OrderSummary> getOrderSummariesByStatus(Order.OrderStatus status, long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readListing(() -> toPage(withArchived(
+                orderRepository.findSummariesByStatus(status, afterId, page), afterId,
+                beforeId -> isArchivable(status)
+                        ? archivedOrderRepository.findSummariesByStatus(status, afterId, beforeId, page)
+                        : List.of(),
+                page, OrderSummary::id), page, OrderSummary::id));
     }
 
-    public List<Order> getOrdersByEmail(String email) {
-        return orderRepository.findByEmail(email);
+    // Served from memory; see OrderStatusCounts
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Order.OrderStatus, Long> getStatusCounts() {
+        return orderStatusCounts.snapshot();
     }
 
-    public List<Order> getOrdersByStatus(Order.OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countOrdersByStatus(Order.OrderStatus status) {
+        return orderStatusCounts.get(status);
     }
 
     public Order updateOrderStatus(String orderId, Order.OrderStatus status) {
@@ -92,8 +332,22 @@ public class OrderService {
         Optional<Order> orderOptional = orderRepository.findByOrderId(orderId);
         if (orderOptional.isPresent()) {
             Order order = orderOptional.get();
+            Order.OrderStatus previousStatus = order.getStatus();
+            // Same rules as updateOrderStatuses; setting the current status again is a no-op
+            if (previousStatus == status) {
+                return order;
+            }
+            if (previousStatus != null && !previousStatus.canTransitionTo(status)) {
+                throw new IllegalStatusTransitionException("Order " + orderId + " cannot move from " +
+                        previousStatus + " to " + status);
+            }
             order.setStatus(status);
             Order updatedOrder = orderRepository.save(order);
+            orderRollupService.recordTransition(order, previousStatus, status);
+            orderCache.invalidate(orderId);
+            readRouting.recordWrite(order);
+            statusBroadcaster.publishTransition(order, previousStatus);
+            orderStatusCounts.recordTransition(previousStatus, status);
 
             if (status == Order.OrderStatus.COMPLETED) {
                 orderProcessedCounter.increment();
@@ -101,14 +355,101 @@ public class OrderService {
 
             logger.info("Order {} status updated to {}", orderId, status);
             return updatedOrder;
+        }
+
+        // Archived orders are COMPLETED or CANCELLED, which are final
+        Optional<Order> archived = archiveEnabled
+                ? archivedOrderRepository.findByOrderId(orderId).map(ArchivedOrder::toOrder)
+                : Optional.empty();
+        if (archived.isPresent()) {
+            Order order = archived.get();
+            if (order.getStatus() == status) {
+                return order;
+            }
+            throw new IllegalStatusTransitionException("Order " + orderId + " is archived as " + order.getStatus() +
+                    " and cannot move to " + status);
         } else {
             logger.error("Order not found: {}", orderId);
             throw new RuntimeException("Order not found: " + orderId);
         }
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // Set-based variant of updateOrderStatus: per chunk, one locking SELECT of (orderId, status) and one UPDATE
+    // for every order whose current status may legally move to the target. Entities are never loaded.
+    public List<StatusUpdateResult> updateOrderStatuses(List<String> orderIds, Order.OrderStatus status) {
+        if (orderIds.size() > MAX_STATUS_UPDATES) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_UPDATES + " orders can be updated per request");
+        }
+        logger.info("Updating {} orders to status {}", orderIds.size(), status);
+
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        List<StatusUpdateResult> results = new ArrayList<>(distinctIds.size());
+        Map<Order.OrderStatus, Long> movedFrom = new EnumMap<>(Order.OrderStatus.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int start = 0; start < distinctIds.size(); start += STATUS_UPDATE_CHUNK_SIZE) {
+            List<String> chunk = distinctIds.subList(start, Math.min(start + STATUS_UPDATE_CHUNK_SIZE, distinctIds.size()));
+
+            Map<String, Order.OrderStatus> current = new HashMap<>();
+            Map<String, Order.OrderStatus> archivedStatuses = new HashMap<>();
+            for (Object[] row : orderRepository.findStatusesForUpdate(chunk)) {
+                current.put((String) row[0], (Order.OrderStatus) row[1]);
+            }
+            // Orders in the archive are final: they can only be UNCHANGED or ILLEGAL_TRANSITION
+            if (archiveEnabled && current.size() < chunk.size()) {
+                List<String> missing = chunk.stream().filter(orderId -> !current.containsKey(orderId)).toList();
+                for (Object[] row : archivedOrderRepository.findStatuses(missing)) {
+                    archivedStatuses.put((String) row[0], (Order.OrderStatus) row[1]);
+                }
+            }
+
+            Map<String, Order.OrderStatus> toUpdate = new HashMap<>();
+            for (String orderId : chunk) {
+                Order.OrderStatus previous = current.get(orderId);
+                StatusUpdateResult.Outcome outcome;
+                if (archivedStatuses.containsKey(orderId)) {
+                    previous = archivedStatuses.get(orderId);
+                    outcome = previous == status
+                            ? StatusUpdateResult.Outcome.UNCHANGED
+                            : StatusUpdateResult.Outcome.ILLEGAL_TRANSITION;
+                } else if (previous == null) {
+                    outcome = StatusUpdateResult.Outcome.NOT_FOUND;
+                } else if (previous == status) {
+                    outcome = StatusUpdateResult.Outcome.UNCHANGED;
+                } else if (!previous.canTransitionTo(status)) {
+                    outcome = StatusUpdateResult.Outcome.ILLEGAL_TRANSITION;
+                } else {
+                    outcome = StatusUpdateResult.Outcome.UPDATED;
+                    toUpdate.put(orderId, previous);
+                    movedFrom.merge(previous, 1L, Long::sum);
+                }
+                results.add(new StatusUpdateResult(orderId, previous, outcome));
+            }
+
+            if (!toUpdate.isEmpty()) {
+                orderRepository.updateStatus(toUpdate.keySet(), status, now);
+                orderRollupService.recordTransitions(toUpdate, status);
+                orderCache.invalidateAll(toUpdate.keySet());
+                readRouting.recordStatusChanges(toUpdate.keySet());
+                statusBroadcaster.publishTransitions(toUpdate, status, now);
+            }
+        }
+
+        long updated = movedFrom.values().stream().mapToLong(Long::longValue).sum();
+        orderStatusCounts.recordTransitions(movedFrom, status);
+        if (status == Order.OrderStatus.COMPLETED) {
+            orderProcessedCounter.increment(updated);
+        }
+
+        logger.info("Updated {} of {} orders to status {}", updated, distinctIds.size(), status);
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage<Order> getAllOrders(long afterId, int limit) {
+        Pageable page = pageOf(limit);
+        return readRouting.readListing(() -> toPage(orderRepository.findPageAfter(afterId, page), afterId,
+                beforeId -> archivedOrderRepository.findPageAfter(afterId, beforeId, page), page));
     }
 
     public void deleteOrder(String orderId) {
@@ -116,11 +457,98 @@ public class OrderService {
 
         Optional<Order> orderOptional = orderRepository.findByOrderId(orderId);
         if (orderOptional.isPresent()) {
+            orderRollupService.recordDeleted(orderOptional.get());
+            orderOutboxService.discardPending(orderId);
             orderRepository.delete(orderOptional.get());
+            orderCache.invalidate(orderId);
+            readRouting.recordWrite(orderOptional.get());
+            orderStatusCounts.recordDeleted(orderOptional.get().getStatus());
             logger.info("Order deleted: {}", orderId);
+            return;
+        }
+
+        Optional<ArchivedOrder> archived = archiveEnabled ? archivedOrderRepository.findByOrderId(orderId) : Optional.empty();
+        if (archived.isPresent()) {
+            Order order = archived.get().toOrder();
+            orderRollupService.recordDeleted(order);
+            orderOutboxService.discardPending(orderId);
+            archivedOrderRepository.deleteArchivedFeatures(order.getId());
+            archivedOrderRepository.deleteArchivedOrder(order.getId());
+            orderCache.invalidate(orderId);
+            readRouting.recordWrite(order);
+            orderStatusCounts.recordDeleted(order.getStatus());
+            logger.info("Archived order deleted: {}", orderId);
         } else {
             logger.error("Order not found for deletion: {}", orderId);
             throw new RuntimeException("Order not found: " + orderId);
         }
     }
+
+    private static Pageable pageOf(int limit) {
+        return PageRequest.ofSize(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Hot table first; the archive is only consulted in archival mode
+    private Optional<Order> findOrder(String orderId) {
+        Optional<Order> order = orderRepository.findByOrderId(orderId);
+        if (order.isPresent() || !archiveEnabled) {
+            return order;
+        }
+        return archivedOrderRepository.findByOrderId(orderId).map(ArchivedOrder::toOrder);
+    }
+
+    // The intake filter only covers recent orderIds and the unique constraint only the hot table, so in
+    // archival mode the archive is always looked up
+    private Optional<Order> findStoredOrder(String orderId) {
+        if (orderId == null) {
+            return Optional.empty();
+        }
+        Optional<Order> order = intakeFilter.mightContain(orderId) ? orderRepository.findByOrderId(orderId) : Optional.empty();
+        if (order.isPresent() || !archiveEnabled) {
+            return order;
+        }
+        return archivedOrderRepository.findByOrderId(orderId).map(ArchivedOrder::toOrder);
+    }
+
+    private OrderPage<Order> toPage(List<Order> orders, long afterId, LongFunction<List<ArchivedOrder>> archived,
+                                    Pageable page) {
+        if (!orders.isEmpty()) {
+            // Touching one collection batch-loads features for the whole page (see @BatchSize on Order.features)
+            Hibernate.initialize(orders.get(0).getFeatures());
+        }
+        List<Order> merged = withArchived(orders, afterId,
+                beforeId -> archived.apply(beforeId).stream().map(ArchivedOrder::toOrder).toList(), page, Order::getId);
+        return toPage(merged, page, Order::getId);
+    }
+
+    // Archived rows keep their ids, so the two keyset pages merge into one by id. The hot page is read first:
+    // the archive is skipped past its highest id, and a full hot page bounds the archive read by its last id.
+    private <T> List<T> withArchived(List<T> hot, long afterId, LongFunction<List<T>> archived, Pageable page,
+                                     Function<T, Long> idOf) {
+        if (!archiveEnabled || afterId >= archiveService.getMaxArchivedId()) {
+            return hot;
+        }
+        long beforeId = hot.size() == page.getPageSize() ? idOf.apply(hot.get(hot.size() - 1)) : Long.MAX_VALUE;
+        List<T> archivedItems = archived.apply(beforeId);
+        if (archivedItems.isEmpty()) {
+            return hot;
+        }
+
+        List<T> merged = new ArrayList<>(hot.size() + archivedItems.size());
+        merged.addAll(hot);
+        merged.addAll(archivedItems);
+        merged.sort(Comparator.comparing(idOf));
+        return merged.size() > page.getPageSize() ? merged.subList(0, page.getPageSize()) : merged;
+    }
+
+    private static boolean isArchivable(Order.OrderStatus status) {
+        return OrderArchiveService.ARCHIVABLE_STATUSES.contains(status);
+    }
+
+    private static <T> OrderPage<T> toPage(List<T> items, Pageable page, Function<T, Long> idOf) {
+        Long nextCursor = !items.isEmpty() && items.size() == page.getPageSize()
+                ? idOf.apply(items.get(items.size() - 1))
+                : null;
+        return new OrderPage<>(items, nextCursor);
+    }
 }
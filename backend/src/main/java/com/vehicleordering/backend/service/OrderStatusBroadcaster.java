@@ -0,0 +1,333 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.dto.OrderStatusEvent;
+import com.vehicleordering.backend.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// In-process fan-out of order status changes to Server-Sent Events subscribers, keyed by orderId or customer
+// email. An idle subscription is an async request parked in Tomcat plus a small bounded buffer; no thread is
+// held. Publishing only enqueues, and a small sender pool writes to the sockets. A subscriber whose buffer
+// fills up is too slow to keep up and is disconnected; the client reconnects and gets a fresh snapshot. The
+// streams need a Bearer token, which the browser's EventSource cannot send, so clients read them with fetch
+// and reconnect themselves. Only changes made on this node are seen.
+@Component
+public class OrderStatusBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusBroadcaster.class);
+    private static final String STATUS_EVENT = "status";
+
+    // An event rendered once and shared by every subscriber it goes to; event is null for heartbeats
+    private record Frame(OrderStatusEvent event, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+    private final Map<String, Set<Subscriber>> byOrderId = new ConcurrentHashMap<>();
+    // Keyed by lowercased email, since the token's claim and the stored order may differ in case
+    private final Map<String, Set<Subscriber>> byEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService senders;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    // Metrics
+    private final Counter deliveredCounter;
+    private final Counter evictedCounter;
+
+    public OrderStatusBroadcaster(MeterRegistry meterRegistry,
+                                  @Value("${orders.stream.max-subscribers:50000}") int maxSubscribers,
+                                  @Value("${orders.stream.buffer-size:16}") int bufferSize,
+                                  @Value("${orders.stream.timeout:30m}") Duration timeout,
+                                  @Value("${orders.stream.sender-threads:4}") int senderThreads) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("orders.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Number of open order status stream subscriptions")
+                .register(meterRegistry);
+
+        this.deliveredCounter = Counter.builder("orders.stream.events")
+                .description("Number of order status events written to subscribers")
+                .register(meterRegistry);
+
+        this.evictedCounter = Counter.builder("orders.stream.evicted")
+                .description("Number of subscribers disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    // snapshot reads the order's current state (null if there is none), sent first so the client never needs
+    // an initial poll. It is read only once the subscription is registered, so a change committing meanwhile is
+    // caught either by the snapshot or as an event; events the snapshot already reflects are dropped.
+    public SseEmitter subscribeToOrder(String orderId, Supplier<OrderStatusEvent> snapshot) {
+        Subscriber subscriber = subscribe(byOrderId, orderId, true);
+        try {
+            subscriber.start(snapshot.get());
+        } catch (RuntimeException e) {
+            subscriber.remove();
+            throw e;
+        }
+        return subscriber.emitter;
+    }
+
+    public SseEmitter subscribeToEmail(String email) {
+        return subscribe(byEmail, email.toLowerCase(Locale.ROOT), false).emitter;
+    }
+
+    public void publishCreated(Collection<Order> orders) {
+        afterCommit(() -> {
+            for (Order order : orders) {
+                publish(order.getOrderId(), order.getEmail(),
+                        () -> new OrderStatusEvent(order.getOrderId(), order.getStatus(), null, order.getCreatedAt()));
+            }
+        });
+    }
+
+    public void publishTransition(Order order, Order.OrderStatus previousStatus) {
+        if (previousStatus == order.getStatus()) {
+            return;
+        }
+        afterCommit(() -> publish(order.getOrderId(), order.getEmail(),
+                () -> new OrderStatusEvent(order.getOrderId(), order.getStatus(), previousStatus, order.getUpdatedAt())));
+    }
+
+    // Bulk updates only know the ids, so these reach orderId subscribers but not email subscribers
+    public void publishTransitions(Map<String, Order.OrderStatus> previousStatuses, Order.OrderStatus status,
+                                   LocalDateTime at) {
+        Map<String, Order.OrderStatus> moved = Map.copyOf(previousStatuses);
+        afterCommit(() -> moved.forEach((orderId, previousStatus) -> publish(orderId, null,
+                () -> new OrderStatusEvent(orderId, status, previousStatus, at))));
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away without closing
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        Frame ping = new Frame(null, SseEmitter.event().comment("ping").build());
+        byOrderId.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.ping(ping)));
+        byEmail.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.ping(ping)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byOrderId.values().forEach(subscribers -> subscribers.forEach(Subscriber::complete));
+        byEmail.values().forEach(subscribers -> subscribers.forEach(Subscriber::complete));
+        senders.shutdown();
+    }
+
+    private Subscriber subscribe(Map<String, Set<Subscriber>> index, String key, boolean awaitSnapshot) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException(maxSubscribers);
+        }
+
+        Subscriber subscriber = new Subscriber(index, key, new SseEmitter(timeout.toMillis()), awaitSnapshot);
+        // Added inside compute so a concurrent remove cannot drop the set this subscriber was added to
+        index.compute(key, (ignored, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.emitter.onCompletion(subscriber::remove);
+        subscriber.emitter.onTimeout(subscriber::complete);
+        subscriber.emitter.onError(error -> subscriber.remove());
+        return subscriber;
+    }
+
+    private void publish(String orderId, String email, Supplier<OrderStatusEvent> event) {
+        Set<Subscriber> orderSubscribers = byOrderId.get(orderId);
+        Set<Subscriber> emailSubscribers = email != null ? byEmail.get(email.toLowerCase(Locale.ROOT)) : null;
+        if (orderSubscribers == null && emailSubscribers == null) {
+            return; // The common case: nobody is watching, so nothing is built
+        }
+
+        Frame frame = toFrame(event.get());
+        if (orderSubscribers != null) {
+            orderSubscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+        if (emailSubscribers != null) {
+            emailSubscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+    }
+
+    private Frame toFrame(OrderStatusEvent event) {
+        return new Frame(event, SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .name(STATUS_EVENT)
+                .data(event, MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    // The snapshot already reflects every change stamped before it; a change in the same instant only counts
+    // if it moved the order somewhere else
+    private static boolean isNewer(OrderStatusEvent event, OrderStatusEvent snapshot) {
+        if (event.at() == null || snapshot.at() == null || event.at().isAfter(snapshot.at())) {
+            return true;
+        }
+        return event.at().isEqual(snapshot.at()) && event.status() != snapshot.status();
+    }
+
+    private static void afterCommit(Runnable publish) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Map<String, Set<Subscriber>> index;
+        private final String key;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Frame> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        // Events published before the snapshot was read, held back until it is sent; null once started
+        private volatile List<Frame> held;
+
+        private Subscriber(Map<String, Set<Subscriber>> index, String key, SseEmitter emitter,
+                           boolean awaitSnapshot) {
+            this.index = index;
+            this.key = key;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.held = awaitSnapshot ? new ArrayList<>() : null;
+        }
+
+        private void start(OrderStatusEvent snapshot) {
+            synchronized (this) {
+                if (snapshot != null) {
+                    enqueue(toFrame(snapshot));
+                }
+                for (Frame frame : held) {
+                    if (snapshot == null || isNewer(frame.event(), snapshot)) {
+                        enqueue(frame);
+                    }
+                }
+                // Cleared last, so an offer racing with this waits for the lock and lands after the snapshot
+                held = null;
+            }
+        }
+
+        private void offer(Frame frame) {
+            if (held != null) {
+                synchronized (this) {
+                    if (held != null) {
+                        if (held.size() < bufferSize) {
+                            held.add(frame);
+                        } else {
+                            evictedCounter.increment();
+                            complete();
+                        }
+                        return;
+                    }
+                }
+            }
+            enqueue(frame);
+        }
+
+        private void enqueue(Frame frame) {
+            if (removed.get()) {
+                return;
+            }
+            if (!buffer.offer(frame)) {
+                evictedCounter.increment();
+                logger.debug("Disconnecting slow order stream subscriber for {}", key);
+                complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Heartbeats are only needed on a quiet connection and never count against the buffer
+        private void ping(Frame ping) {
+            if (buffer.isEmpty() && buffer.offer(ping)) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // At most one drain per subscriber runs at a time, so events reach the client in order
+        private void drain() {
+            try {
+                Frame frame;
+                while (!removed.get() && (frame = buffer.poll()) != null) {
+                    emitter.send(frame.data());
+                    deliveredCounter.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container reports it through onError/onCompletion as well
+                remove();
+            } finally {
+                draining.set(false);
+            }
+            if (!removed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void complete() {
+            remove();
+            emitter.complete();
+        }
+
+        private void remove() {
+            if (removed.compareAndSet(false, true)) {
+                subscriberCount.decrementAndGet();
+                buffer.clear();
+                index.computeIfPresent(key, (ignored, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+}
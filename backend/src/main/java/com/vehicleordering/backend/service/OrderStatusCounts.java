@@ -0,0 +1,219 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory count of orders per status. Loaded with one aggregate query at startup, kept current by
+// OrderService after each commit, and periodically reconciled against the database. Orders without a
+// status are not counted.
+@Component
+public class OrderStatusCounts {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounts.class);
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate reconcileTransaction;
+    private final Map<Order.OrderStatus, LongAdder> counts = new EnumMap<>(Order.OrderStatus.class);
+    // Shared by transactions from just before their commit until their counts are updated, exclusive for
+    // reconciliation, so its query never sees a commit whose update is still to come
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    private final Counter driftCounter;
+
+    public OrderStatusCounts(OrderRepository orderRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.reconcileTransaction = new TransactionTemplate(transactionManager);
+        this.reconcileTransaction.setReadOnly(true);
+
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            LongAdder adder = new LongAdder();
+            counts.put(status, adder);
+            Gauge.builder("orders.status.count", adder, LongAdder::sum)
+                    .description("Number of orders currently in each status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+
+        this.driftCounter = Counter.builder("orders.status.count.drift")
+                .description("Number of status counts corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    // Runs before listener containers start, so no intake is counted twice
+    @PostConstruct
+    public void load() {
+        Map<Order.OrderStatus, Long> actual = queryCounts();
+        actual.forEach((status, count) -> counts.get(status).add(count));
+        logger.info("Loaded order status counts: {}", actual);
+    }
+
+    public long get(Order.OrderStatus status) {
+        return counts.get(status).sum();
+    }
+
+    public Map<Order.OrderStatus, Long> snapshot() {
+        Map<Order.OrderStatus, Long> snapshot = new EnumMap<>(Order.OrderStatus.class);
+        counts.forEach((status, adder) -> snapshot.put(status, adder.sum()));
+        return snapshot;
+    }
+
+    public void recordCreated(Order.OrderStatus status) {
+        if (status == null) {
+            return;
+        }
+        afterCommit(() -> counts.get(status).increment());
+    }
+
+    // Bulk variant: one post-commit update for a whole batch of new orders
+    public void recordCreated(Collection<Order> orders) {
+        Map<Order.OrderStatus, Long> created = new EnumMap<>(Order.OrderStatus.class);
+        for (Order order : orders) {
+            if (order.getStatus() != null) {
+                created.merge(order.getStatus(), 1L, Long::sum);
+            }
+        }
+        if (created.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> created.forEach((status, count) -> counts.get(status).add(count)));
+    }
+
+    public void recordTransition(Order.OrderStatus from, Order.OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            if (from != null) {
+                counts.get(from).decrement();
+            }
+            if (to != null) {
+                counts.get(to).increment();
+            }
+        });
+    }
+
+    // Bulk variant: one post-commit update for all orders moved to the same status
+    public void recordTransitions(Map<Order.OrderStatus, Long> countsByPreviousStatus, Order.OrderStatus to) {
+        Map<Order.OrderStatus, Long> moved = new EnumMap<>(countsByPreviousStatus);
+        moved.remove(to);
+        if (moved.isEmpty() || to == null) {
+            return;
+        }
+        afterCommit(() -> moved.forEach((from, count) -> {
+            counts.get(from).add(-count);
+            counts.get(to).add(count);
+        }));
+    }
+
+    public void recordDeleted(Order.OrderStatus status) {
+        if (status == null) {
+            return;
+        }
+        afterCommit(() -> counts.get(status).decrement());
+    }
+
+    // Commits wait for the duration of the aggregate query, once per interval. The committing transactions
+    // hold pool connections while they wait, so the query's connection is taken before the lock: the
+    // LazyConnectionDataSourceProxy would otherwise only fetch it from the pool once the query runs.
+    @Scheduled(fixedDelayString = "${orders.status-counts.reconcile-interval-ms:300000}",
+               initialDelayString = "${orders.status-counts.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileTransaction.executeWithoutResult(status -> entityManager.unwrap(Session.class).doWork(connection -> {
+            if (connection instanceof ConnectionProxy proxy) {
+                proxy.getTargetConnection();
+            }
+            reconcileLock.writeLock().lock();
+            try {
+                correctDrift(queryCounts());
+            } finally {
+                reconcileLock.writeLock().unlock();
+            }
+        }));
+    }
+
+    private void correctDrift(Map<Order.OrderStatus, Long> actual) {
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            LongAdder adder = counts.get(status);
+            long drift = actual.get(status) - adder.sum();
+            if (drift != 0) {
+                logger.warn("Order status count for {} drifted by {}, correcting", status, drift);
+                adder.add(drift);
+                driftCounter.increment();
+            }
+        }
+    }
+
+    private Map<Order.OrderStatus, Long> queryCounts() {
+        Map<Order.OrderStatus, Long> actual = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            actual.put(status, 0L);
+        }
+        // Counts cover archived orders too; archiving moves rows without changing their status
+        for (Object[] row : orderRepository.countGroupedByStatusWithArchive()) {
+            if (row[0] != null) {
+                actual.put(Order.OrderStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+            }
+        }
+        return actual;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    reconcileLock.readLock().lock();
+                    locked = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (locked) {
+                        locked = false;
+                        reconcileLock.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            reconcileLock.readLock().lock();
+            try {
+                update.run();
+            } finally {
+                reconcileLock.readLock().unlock();
+            }
+        }
+    }
+}
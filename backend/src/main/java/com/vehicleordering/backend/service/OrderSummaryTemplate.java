@@ -0,0 +1,114 @@
+package com.vehicleordering.backend.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Everything in the order summary that does not depend on the order, prepared once at startup:
+// parsed font programs and the header (logo, title) and terms blocks laid out into a small PDF.
+// Each render binds these into its own document by copying the blocks as form XObjects, which
+// skips font loading and text layout for the static parts.
+@Component
+public class OrderSummaryTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSummaryTemplate.class);
+
+    static final PageSize PAGE_SIZE = PageSize.A4;
+    static final float MARGIN = 36f;
+    private static final float CONTENT_WIDTH = PAGE_SIZE.getWidth() - 2 * MARGIN;
+    private static final float HEADER_HEIGHT = 64f;
+    private static final float TERMS_HEIGHT = 96f;
+
+    private static final String COMPANY_NAME = "Vehicle Ordering";
+    private static final String TERMS = "This summary confirms the configuration submitted with your order. "
+            + "Prices are estimates until payment is processed and may change if the configuration is amended. "
+            + "Delivery dates are confirmed separately once the vehicle has been allocated. "
+            + "Orders can be cancelled free of charge until they are confirmed.";
+
+    // Per-document handles; PdfFont and XObject instances belong to a single PdfDocument
+    public record Bound(PdfFont regular, PdfFont bold, PdfFormXObject header, PdfFormXObject terms) {
+    }
+
+    private final FontProgram regularFont;
+    private final FontProgram boldFont;
+    private final byte[] staticLayout;
+
+    public OrderSummaryTemplate() {
+        try {
+            this.regularFont = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+            this.boldFont = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            this.staticLayout = buildStaticLayout();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare order summary template", e);
+        }
+        logger.info("Order summary template prepared ({} bytes of static layout)", staticLayout.length);
+    }
+
+    public Bound bind(PdfDocument target) throws IOException {
+        try (PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(staticLayout)))) {
+            return new Bound(
+                    PdfFontFactory.createFont(regularFont, PdfEncodings.WINANSI),
+                    PdfFontFactory.createFont(boldFont, PdfEncodings.WINANSI),
+                    source.getPage(1).copyAsFormXObject(target),
+                    source.getPage(2).copyAsFormXObject(target));
+        }
+    }
+
+    // Page 1 holds the header block and page 2 the terms block, each sized to the content width
+    private byte[] buildStaticLayout() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PdfDocument pdf = new PdfDocument(new PdfWriter(output));
+        PdfFont regular = PdfFontFactory.createFont(regularFont, PdfEncodings.WINANSI);
+        PdfFont bold = PdfFontFactory.createFont(boldFont, PdfEncodings.WINANSI);
+
+        Document document = new Document(pdf, new PageSize(CONTENT_WIDTH, HEADER_HEIGHT), false);
+        document.setMargins(0, 0, 0, 0);
+
+        // Logo: a filled badge with the company initials
+        PdfCanvas canvas = new PdfCanvas(pdf.addNewPage(new PageSize(CONTENT_WIDTH, HEADER_HEIGHT)));
+        canvas.setFillColor(ColorConstants.DARK_GRAY)
+                .roundRectangle(0, 8, 48, 48, 6)
+                .fill();
+        canvas.beginText()
+                .setFontAndSize(bold, 20)
+                .setFillColor(ColorConstants.WHITE)
+                .moveText(8, 24)
+                .showText("VO")
+                .endText();
+
+        document.add(new Paragraph(COMPANY_NAME).setFont(bold).setFontSize(12)
+                .setFixedPosition(1, 60, 36, CONTENT_WIDTH - 60));
+        document.add(new Paragraph("Vehicle Order Summary").setFont(bold).setFontSize(18)
+                .setFixedPosition(1, 60, 12, CONTENT_WIDTH - 60));
+
+        pdf.addNewPage(new PageSize(CONTENT_WIDTH, TERMS_HEIGHT));
+        document.add(new Paragraph("Terms").setFont(bold).setFontSize(10)
+                .setFixedPosition(2, 0, TERMS_HEIGHT - 16, CONTENT_WIDTH));
+        document.add(new Paragraph(TERMS).setFont(regular).setFontSize(8)
+                .setFixedPosition(2, 0, 0, CONTENT_WIDTH)
+                .setHeight(TERMS_HEIGHT - 20));
+
+        document.close();
+        return output.toByteArray();
+    }
+}
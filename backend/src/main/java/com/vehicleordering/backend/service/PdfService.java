@@ -0,0 +1,109 @@
+package com.vehicleordering.backend.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.List;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import com.vehicleordering.backend.entity.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+
+@Service
+public class PdfService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfService.class);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final float[] DETAIL_COLUMNS = {1, 2};
+
+    private final S3Service s3Service;
+    private final OrderSummaryTemplate template;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final Timer renderTimer;
+
+    public PdfService(S3Service s3Service, OrderSummaryTemplate template, OrderPipelineMetrics pipelineMetrics,
+                      MeterRegistry meterRegistry) {
+        this.s3Service = s3Service;
+        this.template = template;
+        this.pipelineMetrics = pipelineMetrics;
+        this.renderTimer = Timer.builder("pdf.render.duration")
+                .description("Time taken to render an order summary PDF")
+                .register(meterRegistry);
+    }
+
+    // Renders straight into the S3 upload stream so the document is never held in memory as a whole
+    public String generateAndUploadOrderSummary(Order order) {
+        logger.info("Generating order summary PDF for order: {}", order.getOrderId());
+        return s3Service.uploadPdf(order.getOrderId(), outputStream -> renderOrderSummary(order, outputStream));
+    }
+
+    // Only the per-order fields are laid out here; fonts, header and terms come pre-built from the template
+    public void renderOrderSummary(Order order, OutputStream outputStream) throws IOException {
+        Timer.Sample sample = Timer.start();
+        long startNanos = System.nanoTime();
+
+        PdfWriter writer = new PdfWriter(outputStream);
+        writer.setCloseStream(false); // The caller owns the stream and decides whether to complete or abort it
+
+        PdfDocument pdf = new PdfDocument(writer);
+        OrderSummaryTemplate.Bound bound = template.bind(pdf);
+
+        Document document = new Document(pdf, OrderSummaryTemplate.PAGE_SIZE);
+        document.setMargins(OrderSummaryTemplate.MARGIN, OrderSummaryTemplate.MARGIN,
+                OrderSummaryTemplate.MARGIN, OrderSummaryTemplate.MARGIN);
+        document.setFont(bound.regular());
+
+        document.add(new Image(bound.header()));
+        document.add(new Paragraph("Order ID: " + order.getOrderId()));
+        if (order.getCreatedAt() != null) {
+            document.add(new Paragraph("Order Date: " + order.getCreatedAt().format(DATE_FORMATTER)));
+        }
+
+        document.add(new Paragraph("Customer").setFont(bound.bold()).setFontSize(14));
+        Table customer = new Table(UnitValue.createPercentArray(DETAIL_COLUMNS)).useAllAvailableWidth();
+        addRow(customer, bound, "Name", order.getCustomerName());
+        addRow(customer, bound, "Email", order.getEmail());
+        addRow(customer, bound, "Phone", order.getPhone());
+        document.add(customer);
+
+        document.add(new Paragraph("Vehicle").setFont(bound.bold()).setFontSize(14));
+        Table vehicle = new Table(UnitValue.createPercentArray(DETAIL_COLUMNS)).useAllAvailableWidth();
+        addRow(vehicle, bound, "Model", order.getModel());
+        addRow(vehicle, bound, "Color", order.getColor());
+        addRow(vehicle, bound, "Wheels", order.getWheels());
+        document.add(vehicle);
+
+        if (order.getFeatures() != null && !order.getFeatures().isEmpty()) {
+            document.add(new Paragraph("Features").setFont(bound.bold()).setFontSize(14));
+            List features = new List();
+            order.getFeatures().forEach(features::add);
+            document.add(features);
+        }
+
+        if (order.getSpecialRequests() != null && !order.getSpecialRequests().isBlank()) {
+            document.add(new Paragraph("Special Requests").setFont(bound.bold()).setFontSize(14));
+            document.add(new Paragraph(order.getSpecialRequests()));
+        }
+
+        document.add(new Image(bound.terms()).setMarginTop(24));
+        document.close();
+
+        sample.stop(renderTimer);
+        pipelineMetrics.record(OrderPipelineMetrics.Stage.PDF_RENDER, order.getOrderId(), startNanos);
+    }
+
+    private static void addRow(Table table, OrderSummaryTemplate.Bound bound, String label, String value) {
+        table.addCell(new Paragraph(label).setFont(bound.bold()));
+        table.addCell(new Paragraph(value != null ? value : "-"));
+    }
+}
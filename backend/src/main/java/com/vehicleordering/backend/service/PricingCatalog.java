@@ -0,0 +1,180 @@
+package com.vehicleordering.backend.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Immutable snapshot of the price catalog. Option names are interned into dense int ids through
+// open-addressing tables and prices are held in parallel long[] arrays of cents, so pricing a
+// configuration does no boxing and allocates nothing.
+public final class PricingCatalog {
+
+    // JSON shape of the catalog file
+    public record Definition(String currency,
+                             BigDecimal defaultBasePrice,
+                             BigDecimal defaultWheelPrice,
+                             BigDecimal defaultFeaturePrice,
+                             List<Option> models,
+                             List<Option> wheels,
+                             List<Option> features) {
+    }
+
+    public record Option(String id, BigDecimal price) {
+    }
+
+    private final long version;
+    private final String currency;
+
+    private final OptionIndex modelIndex;
+    private final OptionIndex wheelIndex;
+    private final OptionIndex featureIndex;
+
+    private final long[] modelPrices;
+    private final long[] wheelPrices;
+    private final long[] featurePrices;
+
+    // Applied to ids that are not in the catalog, which keeps the historic flat pricing for unknown options
+    private final long defaultBasePrice;
+    private final long defaultWheelPrice;
+    private final long defaultFeaturePrice;
+
+    private PricingCatalog(Definition definition, long version) {
+        this.version = version;
+        this.currency = definition.currency() != null ? definition.currency() : "USD";
+
+        List<Option> models = orEmpty(definition.models());
+        List<Option> wheels = orEmpty(definition.wheels());
+        List<Option> features = orEmpty(definition.features());
+
+        this.modelIndex = new OptionIndex(models);
+        this.wheelIndex = new OptionIndex(wheels);
+        this.featureIndex = new OptionIndex(features);
+        this.modelPrices = toCents(models);
+        this.wheelPrices = toCents(wheels);
+        this.featurePrices = toCents(features);
+
+        this.defaultBasePrice = toCents(definition.defaultBasePrice());
+        this.defaultWheelPrice = toCents(definition.defaultWheelPrice());
+        this.defaultFeaturePrice = toCents(definition.defaultFeaturePrice());
+    }
+
+    public static PricingCatalog from(Definition definition, long version) {
+        return new PricingCatalog(definition, version);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int modelId(String model) {
+        return modelIndex.idOf(model);
+    }
+
+    public int wheelId(String wheels) {
+        return wheelIndex.idOf(wheels);
+    }
+
+    public int featureId(String feature) {
+        return featureIndex.idOf(feature);
+    }
+
+    // Prices a configuration given as interned ids; -1 stands for an option that is not in the catalog
+    public long priceCents(int modelId, int wheelId, int[] featureIds, int featureCount) {
+        long total = modelId >= 0 ? modelPrices[modelId] : defaultBasePrice;
+        total += wheelId >= 0 ? wheelPrices[wheelId] : defaultWheelPrice;
+        for (int i = 0; i < featureCount; i++) {
+            int featureId = featureIds[i];
+            total += featureId >= 0 ? featurePrices[featureId] : defaultFeaturePrice;
+        }
+        return total;
+    }
+
+    public long priceCents(String model, String wheels, List<String> features) {
+        int modelId = modelIndex.idOf(model);
+        long total = modelId >= 0 ? modelPrices[modelId] : defaultBasePrice;
+
+        if (wheels != null) {
+            int wheelId = wheelIndex.idOf(wheels);
+            total += wheelId >= 0 ? wheelPrices[wheelId] : defaultWheelPrice;
+        }
+
+        if (features != null) {
+            // Indexed loop: no Iterator allocation
+            for (int i = 0, n = features.size(); i < n; i++) {
+                int featureId = featureIndex.idOf(features.get(i));
+                total += featureId >= 0 ? featurePrices[featureId] : defaultFeaturePrice;
+            }
+        }
+        return total;
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static long[] toCents(List<Option> options) {
+        long[] cents = new long[options.size()];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = toCents(options.get(i).price());
+        }
+        return cents;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).longValueExact() : 0L;
+    }
+
+    // Open-addressing String -> int table with linear probing
+    private static final class OptionIndex {
+
+        private final String[] keys;
+        private final int[] ids;
+        private final int mask;
+
+        OptionIndex(List<Option> options) {
+            int capacity = Integer.highestOneBit(Math.max(2, options.size() * 2 - 1)) << 1;
+            this.keys = new String[capacity];
+            this.ids = new int[capacity];
+            this.mask = capacity - 1;
+
+            for (int id = 0; id < options.size(); id++) {
+                String key = options.get(id).id();
+                if (key == null) {
+                    throw new IllegalStateException("Catalog option without an id");
+                }
+                int slot = slot(key);
+                while (keys[slot] != null) {
+                    if (keys[slot].equals(key)) {
+                        throw new IllegalStateException("Duplicate catalog option: " + key);
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key.intern();
+                ids[slot] = id;
+            }
+        }
+
+        int idOf(String key) {
+            if (key == null) {
+                return -1;
+            }
+            int slot = slot(key);
+            String candidate;
+            while ((candidate = keys[slot]) != null) {
+                if (candidate == key || candidate.equals(key)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int slot(String key) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
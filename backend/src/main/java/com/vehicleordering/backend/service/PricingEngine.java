@@ -0,0 +1,148 @@
+package com.vehicleordering.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.dto.QuoteRequest;
+import com.vehicleordering.backend.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Prices vehicle configurations from a catalog file. The catalog is swapped atomically on reload,
+// and every quote reads one snapshot so it never mixes prices from two versions.
+@Service
+public class PricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingEngine.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String catalogLocation;
+    private final Counter quoteCounter;
+    // A lock rather than synchronized so a reload blocked on file I/O does not pin a virtual thread's carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile PricingCatalog catalog;
+    private volatile long catalogLastModified;
+    // Modification time of a catalog file that failed to load, so the periodic check skips it until it changes
+    private volatile long failedLastModified;
+    private long nextVersion = 1;
+
+    public PricingEngine(ResourceLoader resourceLoader,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${pricing.catalog.location:classpath:pricing/catalog.json}") String catalogLocation) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.catalogLocation = catalogLocation;
+
+        this.quoteCounter = Counter.builder("pricing.quotes")
+                .description("Number of configurations priced")
+                .register(meterRegistry);
+
+        reload();
+
+        Gauge.builder("pricing.catalog.version", this, engine -> engine.getCatalog().getVersion())
+                .description("Version of the price catalog currently in use")
+                .register(meterRegistry);
+    }
+
+    public PricingCatalog getCatalog() {
+        return catalog;
+    }
+
+    // Loads the catalog and swaps it in; on failure the previous catalog stays in use
+    public PricingCatalog reload() {
+        reloadLock.lock();
+        try {
+            return load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private PricingCatalog load() {
+        Resource resource = resourceLoader.getResource(catalogLocation);
+        long lastModified = lastModified(resource);
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            PricingCatalog.Definition definition = objectMapper.readValue(inputStream, PricingCatalog.Definition.class);
+            PricingCatalog loaded = PricingCatalog.from(definition, nextVersion++);
+            catalogLastModified = lastModified;
+            failedLastModified = 0;
+            catalog = loaded;
+
+            logger.info("Loaded pricing catalog version {} from {}", loaded.getVersion(), catalogLocation);
+            return loaded;
+
+        } catch (IOException e) {
+            failedLastModified = lastModified;
+            logger.error("Error loading pricing catalog from {}: {}", catalogLocation, e.getMessage(), e);
+            throw new UncheckedIOException("Failed to load pricing catalog", e);
+        } catch (RuntimeException e) {
+            failedLastModified = lastModified;
+            logger.error("Invalid pricing catalog at {}: {}", catalogLocation, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.catalog.reload-check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long lastModified = lastModified(resourceLoader.getResource(catalogLocation));
+        if (lastModified > 0 && lastModified != catalogLastModified && lastModified != failedLastModified) {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                // Already logged; keep serving the previous catalog
+            }
+        }
+    }
+
+    public long quoteCents(String model, String wheels, List<String> features) {
+        return quoteCents(catalog, model, wheels, features);
+    }
+
+    // Against a catalog the caller already holds, so the price matches the version it reports
+    public long quoteCents(PricingCatalog snapshot, String model, String wheels, List<String> features) {
+        quoteCounter.increment();
+        return snapshot.priceCents(model, wheels, features);
+    }
+
+    public double quote(Order order) {
+        return quoteCents(order.getModel(), order.getWheels(), order.getFeatures()) / 100.0;
+    }
+
+    public long[] quoteAllCents(List<QuoteRequest> requests) {
+        return quoteAllCents(catalog, requests);
+    }
+
+    public long[] quoteAllCents(PricingCatalog snapshot, List<QuoteRequest> requests) {
+        long[] amounts = new long[requests.size()];
+        for (int i = 0; i < amounts.length; i++) {
+            QuoteRequest request = requests.get(i);
+            amounts[i] = snapshot.priceCents(request.model(), request.wheels(), request.features());
+        }
+        quoteCounter.increment(amounts.length);
+        return amounts;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
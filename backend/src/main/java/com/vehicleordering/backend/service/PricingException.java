@@ -0,0 +1,9 @@
+package com.vehicleordering.backend.service;
+
+// A pricing request the engine cannot serve as asked; reported to the client as 400
+public class PricingException extends RuntimeException {
+
+    public PricingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,248 @@
+package com.vehicleordering.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+// OutputStream that uploads to S3 while it is being written. Documents smaller than one part go up
+// with a single PutObject; larger ones switch to a multipart upload whose parts are sent on the
+// given executor while the writer keeps producing. At most maxInFlightParts parts are buffered
+// for upload at once, so memory stays bounded at (maxInFlightParts + 1) * partSize.
+// The first buffer comes from a shared pool and is returned once the upload finishes.
+// Callers must call abort() instead of close() if writing fails.
+final class S3MultipartUploadStream extends OutputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MultipartUploadStream.class);
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String key;
+    private final String contentType;
+    private final int partSize;
+    private final Executor executor;
+    private final Semaphore partSlots;
+    private final BufferPool bufferPool;
+    private byte[] pooledBuffer;
+
+    private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+    private volatile Throwable partFailure;
+
+    private byte[] buffer;
+    private int count;
+    private String uploadId;
+    private int nextPartNumber = 1;
+    private boolean closed;
+    private boolean aborted;
+
+    S3MultipartUploadStream(S3Client s3Client, String bucketName, String key, String contentType,
+                            int partSize, int maxInFlightParts, Executor executor, BufferPool bufferPool) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.contentType = contentType;
+        this.partSize = partSize;
+        this.executor = executor;
+        this.partSlots = new Semaphore(maxInFlightParts);
+        this.bufferPool = bufferPool;
+        this.pooledBuffer = bufferPool.acquire();
+        this.buffer = pooledBuffer;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+
+        while (length > 0) {
+            if (count == partSize) {
+                flushPart();
+            }
+            int chunk = Math.min(length, partSize - count);
+            ensureCapacity(count + chunk);
+            System.arraycopy(bytes, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (uploadId == null) {
+                putSingleObject();
+            } else {
+                if (count > 0) {
+                    flushPart();
+                }
+                completeMultipartUpload();
+            }
+        } catch (IOException | RuntimeException e) {
+            abort();
+            throw e;
+        } finally {
+            releasePooledBuffer();
+        }
+    }
+
+    // Safe to call more than once, and never throws: it runs while another error is being reported, which a
+    // failed abort must not replace. A failed abort only leaves the uploaded parts behind.
+    public void abort() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        closed = true;
+        releasePooledBuffer();
+        buffer = null;
+
+        if (uploadId != null) {
+            parts.forEach(part -> part.cancel(false));
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build());
+            } catch (RuntimeException e) {
+                logger.warn("Could not abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+            }
+        }
+    }
+
+    private void putSingleObject() {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength((long) count)
+                .build();
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, count), count));
+    }
+
+    private void flushPart() throws IOException {
+        if (partFailure != null) {
+            throw new IOException("S3 part upload failed", partFailure);
+        }
+
+        if (uploadId == null) {
+            uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build()).uploadId();
+        }
+
+        try {
+            // Blocks the writer while too many parts are waiting to upload
+            partSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for S3 part upload");
+        }
+
+        byte[] part = buffer;
+        int length = count;
+        int partNumber = nextPartNumber++;
+        buffer = new byte[partSize];
+        count = 0;
+
+        parts.add(CompletableFuture
+                .supplyAsync(() -> uploadPart(part, length, partNumber), executor)
+                .whenComplete((completedPart, error) -> {
+                    if (error != null) {
+                        partFailure = error;
+                    }
+                    partSlots.release();
+                }));
+    }
+
+    private CompletedPart uploadPart(byte[] part, int length, int partNumber) {
+        UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, length), length));
+
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build();
+    }
+
+    private void completeMultipartUpload() throws IOException {
+        List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+        try {
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+        } catch (CompletionException e) {
+            throw new IOException("S3 part upload failed", e.getCause());
+        }
+
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(completedParts)
+                        .build())
+                .build());
+    }
+
+    // The pooled buffer is always smaller than a part, so it is given back here (or on close)
+    // and never handed to a part upload.
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(partSize, Math.max(required, buffer.length * 2)));
+            releasePooledBuffer();
+        }
+    }
+
+    private void releasePooledBuffer() {
+        if (pooledBuffer != null) {
+            bufferPool.release(pooledBuffer);
+            pooledBuffer = null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
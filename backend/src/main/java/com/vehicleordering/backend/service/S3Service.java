@@ -1,49 +1,89 @@
 package com.vehicleordering.backend.service;
 
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class S3Service {
 
     private static final Logger logger = LoggerFactory.getLogger(S3Service.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes(); // S3 minimum for all but the last part
+    private static final int POOLED_BUFFER_SIZE = 256 * 1024; // Holds a typical order summary without growing
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    // Writes a document into the supplied stream; the stream is owned by S3Service and must not be closed
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
 
     private final S3Client s3Client;
     private final String bucketName;
-
-    public S3Service(S3Client s3Client, @Value("${aws.s3.bucket-name}") String bucketName) {
+    private final int partSize;
+    private final int maxInFlightParts;
+    private final ExecutorService partUploadExecutor;
+    private final BufferPool bufferPool = new BufferPool(POOLED_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    public S3Service(S3Client s3Client,
+                     OrderPipelineMetrics pipelineMetrics,
+                     @Value("${aws.s3.bucket-name}") String bucketName,
+                     @Value("${aws.s3.multipart.part-size:8MB}") DataSize partSize,
+                     @Value("${aws.s3.multipart.max-in-flight-parts:2}") int maxInFlightParts,
+                     @Value("${aws.s3.multipart.upload-threads:8}") int uploadThreads) {
         this.s3Client = s3Client;
+        this.pipelineMetrics = pipelineMetrics;
         this.bucketName = bucketName;
+        this.partSize = (int) Math.max(MIN_PART_SIZE, partSize.toBytes());
+        this.maxInFlightParts = maxInFlightParts;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.partUploadExecutor = Executors.newFixedThreadPool(uploadThreads, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public String uploadPdf(String orderId, byte[] pdfBytes) {
         logger.info("Uploading PDF to S3 for order: {}", orderId);
 
         try {
-            String currentDate = LocalDateTime.now().format(DATE_FORMATTER);
-            String key = String.format("orders/%s/%s-order-summary.pdf", currentDate, orderId);
+            String key = buildKey(orderId);
 
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
-                    .contentType("application/pdf")
+                    .contentType(PDF_CONTENT_TYPE)
                     .contentLength((long) pdfBytes.length)
                     .build();
 
+            // Stream from the caller's array rather than letting fromBytes copy it
+            long startNanos = System.nanoTime();
             PutObjectResponse response = s3Client.putObject(putObjectRequest,
-                    RequestBody.fromBytes(pdfBytes));
+                    RequestBody.fromInputStream(new ByteArrayInputStream(pdfBytes), pdfBytes.length));
+            pipelineMetrics.record(OrderPipelineMetrics.Stage.S3_UPLOAD, orderId, startNanos);
 
-            String pdfUrl = String.format("https://%s.s3.amazonaws.com/%s", bucketName, key);
+            String pdfUrl = buildUrl(key);
 
             logger.info("PDF uploaded successfully to S3: {}", pdfUrl);
             return pdfUrl;
@@ -54,6 +94,34 @@ public class S3Service {
         }
     }
 
+    // Uploads the PDF while it is being rendered, switching to a multipart upload once it outgrows one part
+    public String uploadPdf(String orderId, ContentWriter contentWriter) {
+        logger.info("Streaming PDF to S3 for order: {}", orderId);
+
+        String key = buildKey(orderId);
+        S3MultipartUploadStream uploadStream = new S3MultipartUploadStream(s3Client, bucketName, key,
+                PDF_CONTENT_TYPE, partSize, maxInFlightParts, partUploadExecutor, bufferPool);
+
+        try {
+            contentWriter.writeTo(uploadStream);
+
+            // Parts go up while the content is still being written; the stage covers what is left after that
+            long startNanos = System.nanoTime();
+            uploadStream.close();
+            pipelineMetrics.record(OrderPipelineMetrics.Stage.S3_UPLOAD, orderId, startNanos);
+
+            String pdfUrl = buildUrl(key);
+
+            logger.info("PDF streamed successfully to S3: {}", pdfUrl);
+            return pdfUrl;
+
+        } catch (Exception e) {
+            uploadStream.abort();
+            logger.error("Error streaming PDF to S3 for order {}: {}", orderId, e.getMessage(), e);
+            throw new RuntimeException("Failed to upload PDF to S3", e);
+        }
+    }
+
     public void deletePdf(String pdfUrl) {
         logger.info("Deleting PDF from S3: {}", pdfUrl);
 
@@ -73,4 +141,18 @@ public class S3Service {
             // Don't throw exception for delete failures as it's not critical
         }
     }
+
+    @PreDestroy
+    public void shutdown() {
+        partUploadExecutor.shutdown();
+    }
+
+    private String buildKey(String orderId) {
+        String currentDate = LocalDateTime.now().format(DATE_FORMATTER);
+        return String.format("orders/%s/%s-order-summary.pdf", currentDate, orderId);
+    }
+
+    private String buildUrl(String key) {
+        return String.format("https://%s.s3.amazonaws.com/%s", bucketName, key);
+    }
 }
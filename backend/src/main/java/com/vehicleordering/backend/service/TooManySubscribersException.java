@@ -0,0 +1,8 @@
+package com.vehicleordering.backend.service;
+
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(int limit) {
+        super("This node already holds the maximum of " + limit + " order status subscriptions");
+    }
+}
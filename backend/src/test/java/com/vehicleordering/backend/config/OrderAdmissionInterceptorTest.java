@@ -0,0 +1,110 @@
+package com.vehicleordering.backend.config;
+
+import com.vehicleordering.backend.controller.GlobalExceptionHandler;
+import com.vehicleordering.backend.service.OrderAdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderAdmissionInterceptorTest {
+
+    @RestController
+    static class StubController {
+
+        @GetMapping("/api/orders")
+        String list() {
+            return "[]";
+        }
+
+        @PostMapping("/api/orders")
+        String change() {
+            return "{}";
+        }
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsACallerOverItsWriteBudgetWith429() throws Exception {
+        MockMvc mockMvc = mockMvc(admissionControl(50, 2));
+        authenticate("caller-1");
+
+        mockMvc.perform(post("/api/orders")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders")).andExpect(status().isOk());
+        // The next token arrives after 1 / 0.01 per second
+        mockMvc.perform(post("/api/orders"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value("Too many requests from this caller, retry later"));
+    }
+
+    @Test
+    void keepsReadsWritesAndCallersOnSeparateBudgets() throws Exception {
+        MockMvc mockMvc = mockMvc(admissionControl(50, 1));
+        authenticate("caller-1");
+        mockMvc.perform(post("/api/orders")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders")).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+
+        authenticate("caller-2");
+        mockMvc.perform(post("/api/orders")).andExpect(status().isOk());
+    }
+
+    @Test
+    void shedsRequestsOverTheConcurrencyLimitWith503() throws Exception {
+        OrderAdmissionControl admissionControl = admissionControl(50, 20);
+        MockMvc mockMvc = mockMvc(admissionControl);
+        authenticate("caller-1");
+
+        OrderAdmissionControl.Permit held = admissionControl.admit("caller-2", OrderAdmissionControl.Budget.READ);
+        mockMvc.perform(get("/api/orders"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503));
+
+        held.release(false);
+        mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+        // The previous request gave its permit back
+        mockMvc.perform(get("/api/orders")).andExpect(status().isOk());
+    }
+
+    private static MockMvc mockMvc(OrderAdmissionControl admissionControl) {
+        return MockMvcBuilders.standaloneSetup(new StubController())
+                .addInterceptors(new OrderAdmissionInterceptor(admissionControl))
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    // A concurrency limit of one; rates slow enough that no token is refilled during a test
+    private static OrderAdmissionControl admissionControl(int readBurst, int writeBurst) {
+        return new OrderAdmissionControl(new SimpleMeterRegistry(), 1, 1, 1, 2.0, 0.9, Duration.ofMillis(50),
+                Duration.ofMillis(500), Duration.ofSeconds(1), 0.01, readBurst, 0.01, writeBurst, 1_000);
+    }
+
+    private static void authenticate(String subject) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject(subject).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,133 @@
+package com.vehicleordering.backend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderIdSequenceInitializerTest {
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderIdSequenceInitializerTest() {
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE orders_archive (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE order_outbox (id BIGINT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void leavesAFreshSchemaAlone() {
+        createSequence();
+
+        initializer(new H2Dialect()).initialize();
+
+        assertThat(nextSequenceValue()).isEqualTo(1);
+    }
+
+    @Test
+    void movesTheSequencePastTheHighestIdInEitherTable() {
+        createSequence();
+        jdbcTemplate.update("INSERT INTO orders (id) VALUES (1200)");
+        jdbcTemplate.update("INSERT INTO orders_archive (id) VALUES (3000)");
+
+        initializer(new H2Dialect()).initialize();
+
+        // The pooled optimizer hands out (next - 500, next], so the first block starts at 3001
+        assertThat(nextSequenceValue()).isEqualTo(3000 + 500 + 1);
+    }
+
+    @Test
+    void neverMovesTheSequenceBack() {
+        createSequence();
+        jdbcTemplate.update("INSERT INTO orders (id) VALUES (1200)");
+        jdbcTemplate.execute("ALTER SEQUENCE order_id_seq RESTART WITH 50001");
+
+        initializer(new H2Dialect()).initialize();
+
+        assertThat(nextSequenceValue()).isGreaterThan(50001);
+    }
+
+    @Test
+    void movesTheOutboxSequencePastItsOwnTable() {
+        createSequence();
+        jdbcTemplate.update("INSERT INTO orders (id) VALUES (1200)");
+        jdbcTemplate.update("INSERT INTO order_outbox (id) VALUES (7000)");
+
+        initializer(new H2Dialect()).initialize();
+
+        assertThat(nextSequenceValue()).isEqualTo(1200 + 500 + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR order_outbox_id_seq", Long.class))
+                .isEqualTo(7000 + 500 + 1);
+    }
+
+    @Test
+    void movesTheTableEmulatedSequenceOnDatabasesWithoutSequences() {
+        createTableSequences(1);
+        jdbcTemplate.update("INSERT INTO orders_archive (id) VALUES (3000)");
+
+        initializer(new MySQLDialect()).initialize();
+
+        assertThat(tableNextValue()).isEqualTo(3000 + 500 + 1);
+    }
+
+    @Test
+    void neverMovesTheTableEmulatedSequenceBack() {
+        createTableSequences(90001);
+        jdbcTemplate.update("INSERT INTO orders (id) VALUES (3000)");
+
+        initializer(new MySQLDialect()).initialize();
+
+        assertThat(tableNextValue()).isEqualTo(90001);
+    }
+
+    private OrderIdSequenceInitializer initializer(Dialect dialect) {
+        JdbcServices jdbcServices = mock(JdbcServices.class);
+        when(jdbcServices.getDialect()).thenReturn(dialect);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getJdbcServices()).thenReturn(jdbcServices);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        return new OrderIdSequenceInitializer(dataSource, entityManagerFactory);
+    }
+
+    // As Hibernate creates them for pooled generators with allocationSize 500
+    private void createSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE order_id_seq START WITH 1 INCREMENT BY 500");
+        jdbcTemplate.execute("CREATE SEQUENCE order_outbox_id_seq START WITH 1 INCREMENT BY 500");
+    }
+
+    private void createTableSequences(long nextVal) {
+        for (String sequence : new String[]{"order_id_seq", "order_outbox_id_seq"}) {
+            jdbcTemplate.execute("CREATE TABLE " + sequence + " (next_val BIGINT)");
+            jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", nextVal);
+        }
+    }
+
+    private long nextSequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR order_id_seq", Long.class);
+    }
+
+    private long tableNextValue() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM order_id_seq", Long.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.vehicleordering.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaSet replicas = mock(ReplicaSet.class);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        when(replicas.size()).thenReturn(1);
+        when(replicas.get(0)).thenReturn(mock(DataSource.class));
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), replicas, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionsStayOnThePrimaryUnlessMarkedEligible() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("primary");
+    }
+
+    @Test
+    void eligibleReadsGoToAUsableReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicas.isUsable(0)).thenReturn(true);
+
+        assertThat(ReplicaRoutingDataSource.onReplica(routing::determineCurrentLookupKey)).isEqualTo("replica-0");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("primary");
+    }
+
+    @Test
+    void eligibleReadsFallBackToThePrimaryWhenReplicasLag() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicas.isUsable(0)).thenReturn(false);
+
+        assertThat(ReplicaRoutingDataSource.onReplica(routing::determineCurrentLookupKey)).isEqualTo("primary");
+    }
+
+    @Test
+    void readWriteTransactionsAlwaysUseThePrimary() {
+        assertThat(ReplicaRoutingDataSource.onReplica(routing::determineCurrentLookupKey)).isEqualTo("primary");
+    }
+}
@@ -0,0 +1,118 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        Order order = order();
+
+        Order decoded = OrderEventCodec.decode(OrderEventCodec.encode(order));
+
+        assertThat(decoded).usingRecursiveComparison()
+                .comparingOnlyFields("orderId", "customerName", "email", "phone", "model", "color", "wheels",
+                        "specialRequests", "features")
+                .isEqualTo(order);
+    }
+
+    @Test
+    void keepsNullsApartFromEmptyValues() {
+        Order order = new Order();
+        order.setOrderId("order-1");
+        order.setEmail("");
+        order.setFeatures(List.of());
+
+        Order decoded = OrderEventCodec.decode(OrderEventCodec.encode(order));
+
+        assertThat(decoded.getCustomerName()).isNull();
+        assertThat(decoded.getEmail()).isEmpty();
+        assertThat(decoded.getFeatures()).isEmpty();
+
+        order.setFeatures(null);
+        assertThat(OrderEventCodec.decode(OrderEventCodec.encode(order)).getFeatures()).isNull();
+    }
+
+    @Test
+    void roundTripsMultiByteLengthsAndText() {
+        Order order = order();
+        order.setSpecialRequests("Überführung nach Zürich, bitte 🚗 ".repeat(200));
+
+        Order decoded = OrderEventCodec.decode(OrderEventCodec.encode(order));
+
+        assertThat(decoded.getSpecialRequests()).isEqualTo(order.getSpecialRequests());
+    }
+
+    @Test
+    void startsWithTheMagicByteAndVersion() {
+        byte[] encoded = OrderEventCodec.encode(order());
+
+        assertThat(encoded[0]).isEqualTo(OrderEventCodec.MAGIC);
+        assertThat(encoded[1]).isEqualTo(OrderEventCodec.VERSION_1);
+        assertThat(OrderEventCodec.isBinary(encoded)).isTrue();
+        assertThat(OrderEventCodec.isBinary("{\"orderId\":\"order-1\"}".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(OrderEventCodec.isBinary(new byte[0])).isFalse();
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        byte[] encoded = OrderEventCodec.encode(order());
+        encoded[1] = 0x02;
+
+        assertThatThrownBy(() -> OrderEventCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void rejectsTruncatedAndTrailingBytes() {
+        byte[] encoded = OrderEventCodec.encode(order());
+
+        for (int length = 2; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> OrderEventCodec.decode(truncated))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThatThrownBy(() -> OrderEventCodec.decode(trailing))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Trailing");
+    }
+
+    @Test
+    void limitsTheNumberOfFeatures() {
+        Order order = order();
+        order.setFeatures(new ArrayList<>(Collections.nCopies(256, "f")));
+        assertThat(OrderEventCodec.decode(OrderEventCodec.encode(order)).getFeatures()).hasSize(256);
+
+        order.setFeatures(new ArrayList<>(Collections.nCopies(257, "f")));
+        byte[] encoded = OrderEventCodec.encode(order);
+        assertThatThrownBy(() -> OrderEventCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("features");
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setOrderId("order-1");
+        order.setCustomerName("Alex Example");
+        order.setEmail("alex@example.com");
+        order.setPhone("+1 555 0100");
+        order.setModel("Model S");
+        order.setColor("Red");
+        order.setWheels("21-inch");
+        order.setSpecialRequests("Deliver before noon");
+        order.setFeatures(List.of("autopilot", "premium-audio"));
+        return order;
+    }
+}
@@ -0,0 +1,128 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeFilterTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsRecentOrderIdsPageByPage() {
+        List<Object[]> firstPage = IntStream.range(0, 10_000)
+                .mapToObj(i -> new Object[]{100L + i, "order-" + i})
+                .toList();
+        List<Object[]> secondPage = List.<Object[]>of(new Object[]{20_000L, "order-last"});
+        when(orderRepository.findFirstIdCreatedSince(any(LocalDateTime.class))).thenReturn(100L);
+        when(orderRepository.findOrderIdsAfter(eq(99L), any(Pageable.class))).thenReturn(firstPage);
+        when(orderRepository.findOrderIdsAfter(eq(10_099L), any(Pageable.class))).thenReturn(secondPage);
+
+        OrderIntakeFilter filter = filter(100_000);
+        filter.load();
+
+        assertThat(filter.mightContain("order-0")).isTrue();
+        assertThat(filter.mightContain("order-9999")).isTrue();
+        assertThat(filter.mightContain("order-last")).isTrue();
+    }
+
+    @Test
+    void loadsNothingWhenNoOrderIsInTheWindow() {
+        when(orderRepository.findFirstIdCreatedSince(any(LocalDateTime.class))).thenReturn(null);
+
+        OrderIntakeFilter filter = filter(1_000);
+        filter.load();
+
+        verify(orderRepository, never()).findOrderIdsAfter(anyLong(), any(Pageable.class));
+        assertThat(filter.mightContain("order-1")).isFalse();
+    }
+
+    @Test
+    void neverRulesOutAnAddedIdAndRarelyFlagsANewOne() {
+        OrderIntakeFilter filter = filter(10_000);
+        filter.recordCreated(orders("stored-", 10_000));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("stored-" + i))).isTrue();
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("new-" + i)).count();
+        // Configured for 1%
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void addsOrderIdsOnlyOnceTheirTransactionCommits() {
+        OrderIntakeFilter filter = filter(1_000);
+
+        TransactionSynchronizationManager.initSynchronization();
+        filter.recordCreated(orders("committed-", 1));
+        assertThat(filter.mightContain("committed-0")).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(filter.mightContain("committed-0")).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        filter.recordCreated(orders("rolled-back-", 1));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(filter.mightContain("rolled-back-0")).isFalse();
+    }
+
+    @Test
+    void dropsTheOldestGenerationOnceTwoMoreHaveFilled() {
+        OrderIntakeFilter filter = filter(1_000);
+        filter.recordCreated(orders("oldest-", 1_000));
+        filter.recordCreated(orders("previous-", 1_000));
+        filter.recordCreated(orders("current-", 500));
+
+        assertThat(IntStream.range(0, 1_000).allMatch(i -> filter.mightContain("previous-" + i))).isTrue();
+        assertThat(IntStream.range(0, 500).allMatch(i -> filter.mightContain("current-" + i))).isTrue();
+        long stillFlagged = IntStream.range(0, 1_000).filter(i -> filter.mightContain("oldest-" + i)).count();
+        assertThat(stillFlagged).isLessThan(60);
+    }
+
+    private OrderIntakeFilter filter(int expectedInsertions) {
+        return new OrderIntakeFilter(orderRepository, new SimpleMeterRegistry(), expectedInsertions, 0.01,
+                Duration.ofDays(7));
+    }
+
+    private static List<Order> orders(String prefix, int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setOrderId(prefix + i);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
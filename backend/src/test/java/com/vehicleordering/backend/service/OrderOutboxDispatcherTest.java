@@ -0,0 +1,163 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private OrderOutboxService outboxService;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private PdfService pdfService;
+    @Mock
+    private LambdaService lambdaService;
+
+    private final Order order = new Order();
+    private OrderOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        order.setOrderId("order-1");
+        // Lease renewed every 100ms, attempts cancelled after 200ms
+        dispatcher = new OrderOutboxDispatcher(outboxService, orderRepository, pdfService, lambdaService,
+                new SimpleMeterRegistry(), 60_000, BATCH_SIZE, 4, Duration.ofMillis(300), Duration.ofMillis(200),
+                Duration.ofDays(7));
+        when(orderRepository.findByOrderId("order-1")).thenReturn(Optional.of(order));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void recordsTheOutcomeOfEveryEventInTheBatch() {
+        when(outboxService.claimDue(BATCH_SIZE)).thenReturn(List.of(
+                event(1L, OrderOutboxEvent.Type.GENERATE_PDF), event(2L, OrderOutboxEvent.Type.PROCESS_PAYMENT)));
+        when(pdfService.generateAndUploadOrderSummary(order)).thenReturn("https://bucket/order-1.pdf");
+        when(lambdaService.triggerPaymentProcessing(order, "order-outbox-2"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        boolean full = dispatcher.dispatch();
+
+        assertThat(full).isFalse();
+        verify(outboxService).recordOutcomes(List.of(
+                OrderOutboxService.Outcome.succeeded(1L, "https://bucket/order-1.pdf"),
+                OrderOutboxService.Outcome.succeeded(2L, null)));
+        verify(outboxService, never()).renewLeases(anyCollection());
+    }
+
+    @Test
+    void keepsTheLeaseUntilAnOutstandingInvocationEnds() throws Exception {
+        CompletableFuture<Void> invocation = new CompletableFuture<>();
+        when(outboxService.claimDue(BATCH_SIZE)).thenReturn(List.of(event(2L, OrderOutboxEvent.Type.PROCESS_PAYMENT)));
+        when(lambdaService.triggerPaymentProcessing(order, "order-outbox-2")).thenReturn(invocation);
+
+        CompletableFuture<Boolean> dispatched = CompletableFuture.supplyAsync(dispatcher::dispatch);
+
+        // Past the attempt timeout the invocation cannot be recalled, so the lease is still renewed
+        verify(outboxService, timeout(2_000).atLeast(4)).renewLeases(List.of(2L));
+        verify(outboxService, never()).recordOutcomes(any());
+
+        invocation.completeExceptionally(new IllegalStateException("Lambda unavailable"));
+        dispatched.get(2, TimeUnit.SECONDS);
+
+        verify(outboxService).recordOutcomes(List.of(
+                OrderOutboxService.Outcome.failed(2L, "IllegalStateException: Lambda unavailable")));
+    }
+
+    @Test
+    void interruptsAnAttemptThatRunsPastTheTimeout() {
+        when(outboxService.claimDue(BATCH_SIZE)).thenReturn(List.of(event(1L, OrderOutboxEvent.Type.GENERATE_PDF)));
+        when(pdfService.generateAndUploadOrderSummary(order)).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return "https://bucket/order-1.pdf";
+        });
+
+        long started = System.nanoTime();
+        dispatcher.dispatch();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        ArgumentCaptor<List<OrderOutboxService.Outcome>> outcomes = ArgumentCaptor.captor();
+        verify(outboxService).recordOutcomes(outcomes.capture());
+        assertThat(outcomes.getValue()).singleElement().satisfies(outcome -> {
+            assertThat(outcome.success()).isFalse();
+            assertThat(outcome.error()).startsWith("InterruptedException");
+        });
+    }
+
+    @Test
+    void startsTheTimeoutOfAQueuedAttemptWhenAWorkerPicksItUp() {
+        dispatcher.shutdown();
+        dispatcher = new OrderOutboxDispatcher(outboxService, orderRepository, pdfService, lambdaService,
+                new SimpleMeterRegistry(), 60_000, BATCH_SIZE, 1, Duration.ofMillis(300), Duration.ofMillis(200),
+                Duration.ofDays(7));
+        when(outboxService.claimDue(BATCH_SIZE)).thenReturn(List.of(
+                event(1L, OrderOutboxEvent.Type.GENERATE_PDF), event(2L, OrderOutboxEvent.Type.GENERATE_PDF)));
+        AtomicInteger calls = new AtomicInteger();
+        when(pdfService.generateAndUploadOrderSummary(order)).thenAnswer(invocation -> {
+            // The first holds the only worker until it is interrupted; the second then needs 150ms of its own 200ms
+            Thread.sleep(calls.incrementAndGet() == 1 ? 10_000 : 150);
+            return "https://bucket/order-1.pdf";
+        });
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<List<OrderOutboxService.Outcome>> outcomes = ArgumentCaptor.captor();
+        verify(outboxService).recordOutcomes(outcomes.capture());
+        assertThat(outcomes.getValue()).hasSize(2);
+        assertThat(outcomes.getValue().get(0).error()).startsWith("InterruptedException");
+        assertThat(outcomes.getValue().get(1)).isEqualTo(OrderOutboxService.Outcome.succeeded(2L, "https://bucket/order-1.pdf"));
+    }
+
+    @Test
+    void reportsAFullBatchSoTheNextOneFollowsAtOnce() {
+        List<OrderOutboxEvent> events = new ArrayList<>();
+        for (long id = 1; id <= BATCH_SIZE; id++) {
+            events.add(event(id, OrderOutboxEvent.Type.SEND_EMAIL));
+        }
+        when(outboxService.claimDue(BATCH_SIZE)).thenReturn(events);
+        when(lambdaService.triggerEmailNotification(order)).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(dispatcher.dispatch()).isTrue();
+        verify(outboxService).recordOutcomes(any());
+    }
+
+    private static OrderOutboxEvent event(long id, OrderOutboxEvent.Type type) {
+        OrderOutboxEvent event = new OrderOutboxEvent("order-1", type);
+        ReflectionTestUtils.setField(event, "id", id);
+        event.setAttempts(1);
+        return event;
+    }
+}
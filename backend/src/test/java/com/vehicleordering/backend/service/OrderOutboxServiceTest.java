@@ -0,0 +1,135 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import com.vehicleordering.backend.repository.OrderOutboxRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxServiceTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration LEASE = Duration.ofSeconds(60);
+
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderCache orderCache;
+
+    private OrderOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OrderOutboxService(outboxRepository, orderRepository, orderCache, new SimpleMeterRegistry(),
+                MAX_ATTEMPTS, LEASE, Duration.ofSeconds(1), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void claimingAnEventCountsTheAttemptAndTakesALease() {
+        OrderOutboxEvent event = event(1L, OrderOutboxEvent.Type.GENERATE_PDF, 0);
+        when(outboxRepository.findDueForUpdate(eq(OrderOutboxEvent.Status.PENDING), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(event));
+
+        List<OrderOutboxEvent> claimed = outboxService.claimDue(10);
+
+        assertThat(claimed).containsExactly(event);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plus(LEASE), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void renewingLeasesExtendsOnlyPendingEvents() {
+        outboxService.renewLeases(List.of(1L, 2L));
+
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).extendLease(eq(List.of(1L, 2L)), eq(OrderOutboxEvent.Status.PENDING), until.capture());
+        assertThat(until.getValue()).isAfter(LocalDateTime.now().plus(LEASE).minusSeconds(5));
+    }
+
+    @Test
+    void renewingNoLeasesTouchesNothing() {
+        outboxService.renewLeases(List.of());
+
+        verify(outboxRepository, never()).extendLease(anyCollection(), any(), any());
+    }
+
+    @Test
+    void failedAttemptsBackOffExponentiallyUpToTheCap() {
+        OrderOutboxEvent third = event(1L, OrderOutboxEvent.Type.PROCESS_PAYMENT, 3);
+        OrderOutboxEvent fourth = event(2L, OrderOutboxEvent.Type.PROCESS_PAYMENT, 4);
+        when(outboxRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(third, fourth));
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.recordOutcomes(List.of(
+                OrderOutboxService.Outcome.failed(1L, "timeout"),
+                OrderOutboxService.Outcome.failed(2L, "timeout")));
+
+        // 1s, 2s, 4s, 8s ... capped at 10s
+        assertThat(third.getNextAttemptAt()).isCloseTo(before.plusSeconds(4), within(1, ChronoUnit.SECONDS));
+        assertThat(fourth.getNextAttemptAt()).isCloseTo(before.plusSeconds(8), within(1, ChronoUnit.SECONDS));
+        assertThat(third.getStatus()).isEqualTo(OrderOutboxEvent.Status.PENDING);
+        assertThat(third.getLastError()).isEqualTo("timeout");
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        OrderOutboxEvent event = event(1L, OrderOutboxEvent.Type.SEND_EMAIL, MAX_ATTEMPTS);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(event));
+
+        outboxService.recordOutcomes(List.of(OrderOutboxService.Outcome.failed(1L, "rejected")));
+
+        assertThat(event.getStatus()).isEqualTo(OrderOutboxEvent.Status.FAILED);
+        assertThat(event.getLastError()).isEqualTo("rejected");
+    }
+
+    @Test
+    void aGeneratedPdfIsStoredAndQueuesTheEmail() {
+        OrderOutboxEvent event = event(1L, OrderOutboxEvent.Type.GENERATE_PDF, 2);
+        event.setLastError("earlier failure");
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(event));
+
+        outboxService.recordOutcomes(List.of(OrderOutboxService.Outcome.succeeded(1L, "https://bucket/order-1.pdf")));
+
+        assertThat(event.getStatus()).isEqualTo(OrderOutboxEvent.Status.DONE);
+        assertThat(event.getCompletedAt()).isNotNull();
+        assertThat(event.getLastError()).isNull();
+        verify(orderRepository).updatePdfUrl("order-1", "https://bucket/order-1.pdf");
+        verify(orderCache).invalidate("order-1");
+
+        ArgumentCaptor<List<OrderOutboxEvent>> followUps = ArgumentCaptor.captor();
+        verify(outboxRepository).saveAll(followUps.capture());
+        assertThat(followUps.getValue()).singleElement()
+                .extracting(OrderOutboxEvent::getType).isEqualTo(OrderOutboxEvent.Type.SEND_EMAIL);
+    }
+
+    private static OrderOutboxEvent event(long id, OrderOutboxEvent.Type type, int attempts) {
+        OrderOutboxEvent event = new OrderOutboxEvent("order-1", type);
+        ReflectionTestUtils.setField(event, "id", id);
+        event.setAttempts(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,234 @@
+package com.vehicleordering.backend.service;
+
+import com.vehicleordering.backend.dto.StatusUpdateResult;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.ArchivedOrderRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Mock
+    private OrderArchiveService archiveService;
+    @Mock
+    private OrderCache orderCache;
+    @Mock
+    private OrderStatusCounts orderStatusCounts;
+    @Mock
+    private OrderOutboxService orderOutboxService;
+    @Mock
+    private OrderRollupService orderRollupService;
+    @Mock
+    private OrderReadRouting readRouting;
+    @Mock
+    private OrderStatusBroadcaster statusBroadcaster;
+    @Mock
+    private OrderIntakeFilter intakeFilter;
+    @Mock
+    private OrderPipelineMetrics pipelineMetrics;
+    @Mock
+    private PricingEngine pricingEngine;
+
+    private static List<Order> orders(String... orderIds) {
+        List<Order> orders = new ArrayList<>();
+        for (String orderId : orderIds) {
+            Order order = new Order();
+            order.setOrderId(orderId);
+            order.setAmountCents(100_00L);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private OrderService orderService(boolean archiveEnabled) {
+        return new OrderService(orderRepository, archivedOrderRepository, archiveEnabled, archiveService, orderCache,
+                orderStatusCounts, orderOutboxService, orderRollupService, readRouting, statusBroadcaster,
+                intakeFilter, pipelineMetrics, pricingEngine, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void updateOrderStatusesUpdatesOnlyLegalTransitions() {
+        when(orderRepository.findStatusesForUpdate(anyCollection())).thenReturn(List.of(
+                new Object[]{"pending", Order.OrderStatus.PENDING},
+                new Object[]{"processing", Order.OrderStatus.PROCESSING},
+                new Object[]{"completed", Order.OrderStatus.COMPLETED}));
+
+        List<StatusUpdateResult> results = orderService(false).updateOrderStatuses(
+                List.of("pending", "processing", "completed", "missing"), Order.OrderStatus.PROCESSING);
+
+        assertThat(results).containsExactly(
+                new StatusUpdateResult("pending", Order.OrderStatus.PENDING, StatusUpdateResult.Outcome.UPDATED),
+                new StatusUpdateResult("processing", Order.OrderStatus.PROCESSING, StatusUpdateResult.Outcome.UNCHANGED),
+                new StatusUpdateResult("completed", Order.OrderStatus.COMPLETED,
+                        StatusUpdateResult.Outcome.ILLEGAL_TRANSITION),
+                new StatusUpdateResult("missing", null, StatusUpdateResult.Outcome.NOT_FOUND));
+
+        verify(orderRepository).updateStatus(eq(Set.of("pending")),
+                eq(Order.OrderStatus.PROCESSING), any(LocalDateTime.class));
+        verify(orderRollupService).recordTransitions(Map.of("pending", Order.OrderStatus.PENDING),
+                Order.OrderStatus.PROCESSING);
+        verify(orderStatusCounts).recordTransitions(Map.of(Order.OrderStatus.PENDING, 1L), Order.OrderStatus.PROCESSING);
+    }
+
+    @Test
+    void updateOrderStatusesSkipsTheUpdateWhenNothingMayMove() {
+        when(orderRepository.findStatusesForUpdate(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"cancelled", Order.OrderStatus.CANCELLED}));
+
+        List<StatusUpdateResult> results = orderService(false).updateOrderStatuses(
+                List.of("cancelled"), Order.OrderStatus.CONFIRMED);
+
+        assertThat(results).extracting(StatusUpdateResult::outcome)
+                .containsExactly(StatusUpdateResult.Outcome.ILLEGAL_TRANSITION);
+        verify(orderRepository, never()).updateStatus(anyCollection(), any(), any());
+        verify(statusBroadcaster, never()).publishTransitions(any(), any(), any());
+    }
+
+    @Test
+    void updateOrderStatusesReportsEachDuplicateIdOnce() {
+        when(orderRepository.findStatusesForUpdate(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"a", Order.OrderStatus.PENDING}));
+
+        List<StatusUpdateResult> results = orderService(false).updateOrderStatuses(
+                List.of("a", "a", "a"), Order.OrderStatus.CONFIRMED);
+
+        assertThat(results).hasSize(1);
+        verify(orderStatusCounts).recordTransitions(Map.of(Order.OrderStatus.PENDING, 1L), Order.OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void updateOrderStatusesLocksInChunks() {
+        List<String> orderIds = IntStream.range(0, 1200).mapToObj(i -> "order-" + i).toList();
+        when(orderRepository.findStatusesForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> chunk = invocation.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            chunk.forEach(orderId -> rows.add(new Object[]{orderId, Order.OrderStatus.PENDING}));
+            return rows;
+        });
+
+        List<StatusUpdateResult> results = orderService(false).updateOrderStatuses(orderIds, Order.OrderStatus.CANCELLED);
+
+        assertThat(results).hasSize(1200).allMatch(result -> result.outcome() == StatusUpdateResult.Outcome.UPDATED);
+        ArgumentCaptor<Collection<String>> chunks = ArgumentCaptor.captor();
+        verify(orderRepository, times(3)).findStatusesForUpdate(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(Collection::size).containsExactly(500, 500, 200);
+        verify(orderStatusCounts).recordTransitions(Map.of(Order.OrderStatus.PENDING, 1200L), Order.OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void updateOrderStatusesRejectsOversizedRequests() {
+        List<String> orderIds = IntStream.rangeClosed(0, OrderService.MAX_STATUS_UPDATES).mapToObj(i -> "order-" + i).toList();
+
+        assertThatThrownBy(() -> orderService(false).updateOrderStatuses(orderIds, Order.OrderStatus.CANCELLED))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(orderRepository, never()).findStatusesForUpdate(anyCollection());
+    }
+
+    @Test
+    void updateOrderStatusesTreatsArchivedOrdersAsFinal() {
+        when(orderRepository.findStatusesForUpdate(anyCollection())).thenReturn(List.of());
+        when(archivedOrderRepository.findStatuses(List.of("old", "older"))).thenReturn(List.of(
+                new Object[]{"old", Order.OrderStatus.COMPLETED},
+                new Object[]{"older", Order.OrderStatus.CANCELLED}));
+
+        List<StatusUpdateResult> results = orderService(true).updateOrderStatuses(
+                List.of("old", "older"), Order.OrderStatus.COMPLETED);
+
+        assertThat(results).extracting(StatusUpdateResult::outcome).containsExactly(
+                StatusUpdateResult.Outcome.UNCHANGED, StatusUpdateResult.Outcome.ILLEGAL_TRANSITION);
+        verify(orderRepository, never()).updateStatus(anyCollection(), any(), any());
+    }
+
+    @Test
+    void createOrdersLooksUpOnlyOrderIdsTheFilterCannotRuleOut() {
+        when(intakeFilter.mightContain("new")).thenReturn(false);
+        when(intakeFilter.mightContain("seen")).thenReturn(true);
+        when(intakeFilter.mightContain("false-positive")).thenReturn(true);
+        when(orderRepository.findExistingOrderIds(List.of("seen", "false-positive"))).thenReturn(List.of("seen"));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Order> created = orderService(false).createOrders(orders("new", "seen", "false-positive"));
+
+        assertThat(created).extracting(Order::getOrderId).containsExactly("new", "false-positive");
+        verify(intakeFilter).recordCreated(created);
+        verify(orderStatusCounts).recordCreated(created);
+        verify(orderCache).invalidateAll(List.of("new", "false-positive"));
+        verify(archivedOrderRepository, never()).findExistingOrderIds(anyCollection());
+    }
+
+    @Test
+    void createOrdersSkipsNewOrdersWithoutAnyLookup() {
+        when(intakeFilter.mightContain(any())).thenReturn(false);
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Order> created = orderService(false).createOrders(orders("a", "b"));
+
+        assertThat(created).hasSize(2);
+        verify(orderRepository, never()).findExistingOrderIds(anyCollection());
+    }
+
+    @Test
+    void createOrdersChecksTheArchiveForEveryOrderInArchivalMode() {
+        when(intakeFilter.mightContain(any())).thenReturn(false);
+        when(archivedOrderRepository.findExistingOrderIds(List.of("archived", "new"))).thenReturn(List.of("archived"));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Order> created = orderService(true).createOrders(orders("archived", "new"));
+
+        assertThat(created).extracting(Order::getOrderId).containsExactly("new");
+    }
+
+    @Test
+    void updateOrderStatusRejectsIllegalTransitions() {
+        Order order = new Order();
+        order.setOrderId("done");
+        order.setStatus(Order.OrderStatus.COMPLETED);
+        when(orderRepository.findByOrderId("done")).thenReturn(Optional.of(order));
+
+        assertThatThrownBy(() -> orderService(false).updateOrderStatus("done", Order.OrderStatus.PROCESSING))
+                .isInstanceOf(IllegalStatusTransitionException.class);
+        assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.COMPLETED);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteOrderDiscardsItsPendingSideEffects() {
+        Order order = orders("gone").get(0);
+        when(orderRepository.findByOrderId("gone")).thenReturn(Optional.of(order));
+
+        orderService(false).deleteOrder("gone");
+
+        verify(orderOutboxService).discardPending("gone");
+        verify(orderRepository).delete(order);
+    }
+}
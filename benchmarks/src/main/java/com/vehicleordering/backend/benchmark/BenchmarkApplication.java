@@ -0,0 +1,73 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.config.SecurityConfig;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import com.vehicleordering.backend.service.KafkaOrderConsumer;
+import com.vehicleordering.backend.service.OrderOutboxDispatcher;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// Backend services wired against an in-memory H2 database with AWS stubbed out. Security, the Kafka
+// consumer and the outbox dispatcher are left out so only the measured call does work.
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Order.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+@ComponentScan(basePackages = "com.vehicleordering.backend",
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                        classes = {SecurityConfig.class, KafkaOrderConsumer.class, OrderOutboxDispatcher.class}),
+                @ComponentScan.Filter(type = FilterType.REGEX,
+                        pattern = "com\\.vehicleordering\\.backend\\.benchmark\\..*")
+        })
+public class BenchmarkApplication {
+
+    // Boot's default security would otherwise lock down the endpoints, since SecurityConfig is not loaded
+    private static final String EXCLUDED_SECURITY_AUTO_CONFIGURATION = "spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration,"
+            + "org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration,"
+            + "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration";
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        return builder(WebApplicationType.NONE)
+                .properties(extraProperties)
+                .run();
+    }
+
+    // Servlet variant on a random port; extra sources such as load-test controllers are registered alongside the backend
+    public static ConfigurableApplicationContext startWeb(Class<?>[] extraSources, String... extraProperties) {
+        return builder(WebApplicationType.SERVLET)
+                .sources(extraSources)
+                .properties("server.port=0", EXCLUDED_SECURITY_AUTO_CONFIGURATION)
+                .properties(extraProperties)
+                .run();
+    }
+
+    private static SpringApplicationBuilder builder(WebApplicationType webApplicationType) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(webApplicationType)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.kafka.listener.auto-startup=false",
+                        "management.cloudwatch.metrics.export.enabled=false",
+                        "aws.region=us-east-1",
+                        "aws.s3.bucket-name=benchmark",
+                        "aws.lambda.payment-function=payment",
+                        "aws.lambda.email-function=email",
+                        "aws.lambda.stub.enabled=true",
+                        "logging.level.com.vehicleordering=WARN");
+    }
+}
@@ -0,0 +1,41 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Representative orders matching what the frontend form submits
+public final class BenchmarkOrders {
+
+    private static final String[] MODELS = {"Sedan", "SUV", "Truck", "Hatchback", "Convertible"};
+    private static final String[] COLORS = {"Red", "Blue", "Black", "White", "Silver", "Green"};
+    private static final String[] WHEELS = {"Standard Alloy", "Premium Alloy", "Chrome", "Carbon Fiber"};
+    private static final String[] FEATURES = {
+            "Navigation System", "Heated Seats", "Sunroof", "Premium Audio", "Leather Interior", "Backup Camera"
+    };
+
+    private BenchmarkOrders() {
+    }
+
+    public static Order sample(String orderId, int seed) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerName("Customer " + seed);
+        order.setEmail("customer" + (seed % 1000) + "@example.com");
+        order.setPhone("555-0100");
+        order.setModel(MODELS[seed % MODELS.length]);
+        order.setColor(COLORS[seed % COLORS.length]);
+        order.setWheels(WHEELS[seed % WHEELS.length]);
+
+        List<String> features = new ArrayList<>();
+        for (int i = 0; i < seed % (FEATURES.length + 1); i++) {
+            features.add(FEATURES[i]);
+        }
+        order.setFeatures(features);
+        order.setSpecialRequests(seed % 3 == 0 ? "Please deliver on a weekday morning." : null);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+}
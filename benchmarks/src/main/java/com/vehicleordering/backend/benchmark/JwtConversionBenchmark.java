@@ -0,0 +1,105 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.vehicleordering.backend.config.CachingJwtDecoder;
+import com.vehicleordering.backend.config.CustomJwtAuthenticationConverter;
+import com.vehicleordering.backend.service.OrderPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// decodeAndConvert is the per-request cost before caching; cachedDecodeAndConvert is the cost now
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtConversionBenchmark {
+
+    @Param({"0", "2", "8"})
+    private int groupCount;
+
+    private CustomJwtAuthenticationConverter converter;
+    private JwtDecoder decoder;
+    private JwtDecoder cachingDecoder;
+    private String token;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException, JOSEException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        converter = new CustomJwtAuthenticationConverter(meterRegistry,
+                new OrderPipelineMetrics(meterRegistry, 0, Duration.ZERO), 1000);
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        decoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        cachingDecoder = new CachingJwtDecoder(decoder, meterRegistry, 10000, Duration.ofMinutes(5));
+
+        List<String> groups = new ArrayList<>();
+        for (int i = 0; i < groupCount; i++) {
+            groups.add("group-" + i);
+        }
+
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .subject("customer@example.com")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)));
+        if (groupCount > 0) {
+            claims.claim("groups", groups);
+        }
+
+        SignedJWT signed = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims.build());
+        signed.sign(new RSASSASigner(keyPair.getPrivate()));
+        token = signed.serialize();
+        jwt = decoder.decode(token);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken decodeAndConvert() {
+        return converter.convert(decoder.decode(token));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken cachedDecodeAndConvert() {
+        return converter.convert(cachingDecoder.decode(token));
+    }
+}
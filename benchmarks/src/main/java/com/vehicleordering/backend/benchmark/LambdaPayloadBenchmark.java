@@ -0,0 +1,74 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.config.LocalLambdaAsyncClient;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.LambdaService;
+import com.vehicleordering.backend.service.OrderPipelineMetrics;
+import com.vehicleordering.backend.service.PricingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LambdaPayloadBenchmark {
+
+    private LocalLambdaAsyncClient lambdaClient;
+    private ObjectMapper objectMapper;
+    private LambdaService lambdaService;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        lambdaClient = new LocalLambdaAsyncClient(Duration.ZERO);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PricingEngine pricingEngine = new PricingEngine(new DefaultResourceLoader(), objectMapper, meterRegistry,
+                "classpath:pricing/catalog.json");
+        lambdaService = new LambdaService(lambdaClient, objectMapper, pricingEngine,
+                new OrderPipelineMetrics(meterRegistry, 0, Duration.ZERO), meterRegistry,
+                "payment", "email", 64, 1000, LambdaService.OverflowPolicy.DROP_NEWEST, 0);
+        order = BenchmarkOrders.sample("ORD-1700000000000-abc123def", 5);
+        order.setPdfUrl("https://benchmark.s3.amazonaws.com/orders/2024/01/01/ORD-1700000000000-abc123def-order-summary.pdf");
+    }
+
+    @TearDown
+    public void tearDown() {
+        lambdaClient.close();
+    }
+
+    @Benchmark
+    public double calculateOrderAmount() {
+        return lambdaService.calculateOrderAmount(order);
+    }
+
+    @Benchmark
+    public byte[] paymentPayload() throws IOException {
+        return objectMapper.writeValueAsBytes(lambdaService.buildPaymentPayload(order, order.getOrderId()));
+    }
+
+    @Benchmark
+    public byte[] emailPayload() throws IOException {
+        return objectMapper.writeValueAsBytes(lambdaService.buildEmailPayload(order));
+    }
+}
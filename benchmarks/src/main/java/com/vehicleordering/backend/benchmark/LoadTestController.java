@@ -0,0 +1,37 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.LambdaService;
+import com.vehicleordering.backend.service.OrderService;
+import com.vehicleordering.backend.service.PdfService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs the full blocking order path on the request thread: a database transaction, a PDF streamed to the
+// S3 stub and a wait for the Lambda stub. Only registered by VirtualThreadLoadTest.
+@RestController
+public class LoadTestController {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final OrderService orderService;
+    private final PdfService pdfService;
+    private final LambdaService lambdaService;
+
+    public LoadTestController(OrderService orderService, PdfService pdfService, LambdaService lambdaService) {
+        this.orderService = orderService;
+        this.pdfService = pdfService;
+        this.lambdaService = lambdaService;
+    }
+
+    @PostMapping("/load-test/orders")
+    public String createOrder() {
+        long seed = sequence.incrementAndGet();
+        Order order = orderService.createOrder(BenchmarkOrders.sample("LOAD-" + seed, (int) (seed % 1000)));
+        order.setPdfUrl(pdfService.generateAndUploadOrderSummary(order));
+        lambdaService.triggerPaymentProcessing(order, order.getOrderId()).join();
+        return order.getPdfUrl();
+    }
+}
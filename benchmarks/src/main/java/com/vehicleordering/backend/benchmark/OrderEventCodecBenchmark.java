@@ -0,0 +1,94 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs the binary order event encoding, over a spread of orders like one consumer poll.
+// Broker bytes per record are printed at setup; run with -prof gc to compare consumer allocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderEventCodecBenchmark {
+
+    private static final int RECORDS = 500;
+
+    private ObjectMapper objectMapper;
+    private Order[] orders;
+    private byte[][] json;
+    private byte[][] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configured the way Spring Boot configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orders = new Order[RECORDS];
+        json = new byte[RECORDS][];
+        binary = new byte[RECORDS][];
+
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            Order order = BenchmarkOrders.sample("ORD-1700000000000-" + Integer.toString(100_000 + i, 36), i);
+            order.setCreatedAt(null); // Not part of what producers publish
+            orders[i] = order;
+            json[i] = objectMapper.writeValueAsBytes(order);
+            binary[i] = OrderEventCodec.encode(order);
+            jsonBytes += json[i].length;
+            binaryBytes += binary[i].length;
+        }
+        System.out.printf("%nBytes per record: json %.1f, binary %.1f (%.0f%% of json)%n",
+                (double) jsonBytes / RECORDS, (double) binaryBytes / RECORDS, 100.0 * binaryBytes / jsonBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void encodeJson(Blackhole blackhole) throws IOException {
+        for (Order order : orders) {
+            blackhole.consume(objectMapper.writeValueAsBytes(order));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void encodeBinary(Blackhole blackhole) {
+        for (Order order : orders) {
+            blackhole.consume(OrderEventCodec.encode(order));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void decodeJson(Blackhole blackhole) throws IOException {
+        for (byte[] value : json) {
+            blackhole.consume(objectMapper.readValue(value, Order.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void decodeBinary(Blackhole blackhole) {
+        for (byte[] value : binary) {
+            blackhole.consume(OrderEventCodec.decode(value));
+        }
+    }
+}
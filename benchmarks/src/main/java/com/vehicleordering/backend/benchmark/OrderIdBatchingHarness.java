@@ -0,0 +1,117 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bulk order creation (OrderService.createOrders, one Kafka poll per call) with the old IDENTITY ids against
+// the pooled sequences, on H2 with its own dialect, on H2 with the MySQL dialect (where the sequences are
+// emulated with tables), and optionally on a real MySQL. The IDENTITY runs restore the old mappings of
+// orders and outbox events through an orm.xml override. Reports rows/sec over orders and order_features,
+// JDBC statements per order, and how many of those went to order_outbox or its sequence.
+// Usage: java -cp target/benchmarks.jar com.vehicleordering.backend.benchmark.OrderIdBatchingHarness
+//        [orders=20000] [mysqlUrl user password]
+// The MySQL runs drop and recreate the schema's tables, so point mysqlUrl at a scratch database.
+public class OrderIdBatchingHarness {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int WARMUP_BATCHES = 4;
+    private static final String IDENTITY_MAPPING = "spring.jpa.mapping-resources=META-INF/identity-order-ids.orm.xml";
+
+    private record Target(String name, String... properties) {
+    }
+
+    public static void main(String[] args) {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        List<Target> targets = new ArrayList<>(List.of(
+                new Target("h2",
+                        "spring.datasource.url=jdbc:h2:mem:ids-h2;DB_CLOSE_DELAY=-1"),
+                new Target("h2 (MySQL dialect)",
+                        "spring.datasource.url=jdbc:h2:mem:ids-mysql;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect")));
+        if (args.length > 1) {
+            String url = args[1] + (args[1].contains("rewriteBatchedStatements") ? ""
+                    : (args[1].contains("?") ? "&" : "?") + "rewriteBatchedStatements=true");
+            targets.add(new Target("mysql",
+                    "spring.datasource.url=" + url,
+                    "spring.datasource.username=" + (args.length > 2 ? args[2] : "root"),
+                    "spring.datasource.password=" + (args.length > 3 ? args[3] : "")));
+        }
+
+        System.out.printf("%n%-20s %-9s %12s %12s %14s %14s%n", "database", "ids", "orders/sec", "rows/sec",
+                "stmts/order", "outbox/order");
+        for (Target target : targets) {
+            run(target, "identity", orderCount, IDENTITY_MAPPING);
+            run(target, "pooled", orderCount);
+        }
+    }
+
+    private static void run(Target target, String mode, int orderCount, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(target.properties()));
+        properties.addAll(List.of(extraProperties));
+        properties.add("spring.jpa.properties.hibernate.generate_statistics=true");
+        properties.add("orders.cache.max-size=0");
+        properties.add("spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + OutboxStatementCounter.class.getName());
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(properties.toArray(String[]::new))) {
+            OrderService orderService = context.getBean(OrderService.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            int seed = 0;
+            for (int i = 0; i < WARMUP_BATCHES; i++) {
+                orderService.createOrders(batch(mode, seed));
+                seed += BATCH_SIZE;
+            }
+            statistics.clear();
+            OutboxStatementCounter.STATEMENTS.reset();
+
+            long rows = 0;
+            long start = System.nanoTime();
+            for (int created = 0; created < orderCount; created += BATCH_SIZE) {
+                List<Order> batch = batch(mode, seed);
+                seed += BATCH_SIZE;
+                orderService.createOrders(batch);
+                rows += batch.size() + batch.stream().mapToInt(order -> order.getFeatures().size()).sum();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int orders = (orderCount + BATCH_SIZE - 1) / BATCH_SIZE * BATCH_SIZE;
+
+            System.out.printf("%-20s %-9s %12.0f %12.0f %14.2f %14.2f%n", target.name(), mode, orders / seconds,
+                    rows / seconds, (double) statistics.getPrepareStatementCount() / orders,
+                    (double) OutboxStatementCounter.STATEMENTS.sum() / orders);
+        }
+    }
+
+    // Sees each statement as Hibernate prepares it, so a JDBC batch counts once, as in getPrepareStatementCount
+    public static class OutboxStatementCounter implements StatementInspector {
+
+        static final LongAdder STATEMENTS = new LongAdder();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("order_outbox")) {
+                STATEMENTS.increment();
+            }
+            return sql;
+        }
+    }
+
+    private static List<Order> batch(String mode, int seed) {
+        List<Order> orders = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            orders.add(BenchmarkOrders.sample("IDS-" + mode + "-" + (seed + i), seed + i));
+        }
+        return orders;
+    }
+}
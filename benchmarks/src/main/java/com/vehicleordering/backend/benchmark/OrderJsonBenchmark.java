@@ -0,0 +1,54 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configured the way Spring Boot configures the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        order = BenchmarkOrders.sample("ORD-1700000000000-abc123def", 5);
+        json = objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws IOException {
+        return objectMapper.readValue(json, Order.class);
+    }
+
+    @Benchmark
+    public Order roundTrip() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(order), Order.class);
+    }
+}
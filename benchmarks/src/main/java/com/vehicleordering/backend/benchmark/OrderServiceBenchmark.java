@@ -0,0 +1,80 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import com.vehicleordering.backend.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class OrderServiceBenchmark {
+
+    private static final int EXISTING_ORDERS = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private String[] existingOrderIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        existingOrderIds = new String[EXISTING_ORDERS];
+        for (int i = 0; i < EXISTING_ORDERS; i++) {
+            existingOrderIds[i] = "EXISTING-" + i;
+            orderService.createOrder(BenchmarkOrders.sample(existingOrderIds[i], i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        long id = sequence.incrementAndGet();
+        return orderService.createOrder(BenchmarkOrders.sample("BENCH-" + id, (int) id));
+    }
+
+    @Benchmark
+    public Optional<Order> getOrderById() {
+        return orderService.getOrderById(randomExistingOrderId());
+    }
+
+    // Same lookup without the near-cache, for comparison
+    @Benchmark
+    public Optional<Order> findByOrderId() {
+        return orderRepository.findByOrderId(randomExistingOrderId());
+    }
+
+    private String randomExistingOrderId() {
+        return existingOrderIds[ThreadLocalRandom.current().nextInt(EXISTING_ORDERS)];
+    }
+}
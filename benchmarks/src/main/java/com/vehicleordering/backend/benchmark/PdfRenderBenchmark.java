@@ -0,0 +1,62 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderPipelineMetrics;
+import com.vehicleordering.backend.service.OrderSummaryTemplate;
+import com.vehicleordering.backend.service.PdfService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Cold renders prepare the template (fonts, header and terms layout) for every document;
+// warm renders reuse the one prepared at startup, which is what the service does.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PdfRenderBenchmark {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(256 * 1024);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // No per-order traces: every invocation renders the same order id
+    private final OrderPipelineMetrics pipelineMetrics = new OrderPipelineMetrics(meterRegistry, 0, Duration.ZERO);
+
+    private PdfService warmPdfService;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        warmPdfService = new PdfService(null, new OrderSummaryTemplate(), pipelineMetrics, meterRegistry);
+        order = BenchmarkOrders.sample("ORD-1700000000000-abc123def", 5);
+    }
+
+    @Benchmark
+    public int coldRender() throws IOException {
+        PdfService pdfService = new PdfService(null, new OrderSummaryTemplate(), pipelineMetrics, meterRegistry);
+        output.reset();
+        pdfService.renderOrderSummary(order, output);
+        return output.size();
+    }
+
+    @Benchmark
+    public int warmRender() throws IOException {
+        output.reset();
+        warmPdfService.renderOrderSummary(order, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,225 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.entity.OrderOutboxEvent;
+import com.vehicleordering.backend.repository.OrderOutboxRepository;
+import com.vehicleordering.backend.repository.OrderRepository;
+import com.vehicleordering.backend.service.OrderEventCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Drives orders end to end under the local-perf profile: embedded Kafka -> consumer -> database -> outbox ->
+// PDF to the S3 stand-in -> Lambda stand-in. Reports throughput and per-stage latency percentiles taken
+// from the persisted timestamps, plus the in-process stage timers.
+// Usage: java -cp target/benchmarks.jar com.vehicleordering.backend.benchmark.PipelineHarness
+//        [orders=10000] [partitions=8] [timeoutSeconds=600] [format=binary|json] [--spring.property=value ...]
+// e.g. --aws.s3.stub.latency=120ms --aws.lambda.stub.failure-rate=0.01
+public class PipelineHarness {
+
+    private static final String[] STAGE_TIMERS = {
+            "orders.ingest.batch.duration",
+            "orders.outbox.batch.duration",
+            "orders.pipeline.stage.duration",
+            "pdf.render.duration",
+            "lambda.invoke.duration"
+    };
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            (arg.startsWith("--") ? springArgs : positional).add(arg);
+        }
+        int orderCount = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 10_000;
+        int partitions = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 8;
+        Duration timeout = Duration.ofSeconds(positional.size() > 2 ? Long.parseLong(positional.get(2)) : 600);
+        boolean binary = positional.size() <= 3 || !"json".equalsIgnoreCase(positional.get(3));
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, partitions, "vehicle-orders");
+        broker.afterPropertiesSet(); // Publishes spring.embedded.kafka.brokers, which the profile points Kafka at
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PipelineHarnessApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("local-perf")
+                .properties(
+                        "kafka.topic.orders=vehicle-orders",
+                        "spring.kafka.listener.concurrency=" + partitions,
+                        "spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.ByteArraySerializer",
+                        "management.metrics.distribution.percentiles.all=0.5,0.95,0.99",
+                        "logging.level.com.vehicleordering=WARN")
+                .run(springArgs.toArray(String[]::new))) {
+
+            new PipelineHarness(context).run(orderCount, timeout, binary);
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final String topic;
+
+    private PipelineHarness(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.topic = context.getEnvironment().getRequiredProperty("kafka.topic.orders");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(int orderCount, Duration timeout, boolean binary) throws Exception {
+        KafkaTemplate<String, byte[]> kafkaTemplate = context.getBean(KafkaTemplate.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        OrderRepository orderRepository = context.getBean(OrderRepository.class);
+        OrderOutboxRepository outboxRepository = context.getBean(OrderOutboxRepository.class);
+
+        Map<String, LocalDateTime> sentAt = new HashMap<>(orderCount * 2);
+        long bytesSent = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < orderCount; i++) {
+            Order order = BenchmarkOrders.sample("E2E-" + i, i);
+            sentAt.put(order.getOrderId(), LocalDateTime.now());
+            byte[] value = binary ? OrderEventCodec.encode(order) : objectMapper.writeValueAsBytes(order);
+            bytesSent += value.length;
+            kafkaTemplate.send(topic, order.getOrderId(), value);
+        }
+        kafkaTemplate.flush();
+        double publishSeconds = (System.nanoTime() - start) / 1e9;
+
+        // Done once every order is stored and no side effect is still waiting to run or be retried
+        long deadline = start + timeout.toNanos();
+        while (orderRepository.count() < orderCount
+                || outboxRepository.countByStatus(OrderOutboxEvent.Status.PENDING) > 0) {
+            if (System.nanoTime() > deadline) {
+                System.out.printf("Timed out after %s with %d orders stored and %d side effects pending%n",
+                        timeout, orderRepository.count(),
+                        outboxRepository.countByStatus(OrderOutboxEvent.Status.PENDING));
+                break;
+            }
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nOrders: %d  published in %.1fs (%.0f/s)  completed in %.1fs (%.0f/s)  failed side effects: %d%n",
+                orderCount, publishSeconds, orderCount / publishSeconds, totalSeconds, orderCount / totalSeconds,
+                outboxRepository.countByStatus(OrderOutboxEvent.Status.FAILED));
+
+        System.out.printf("Encoding: %s  value bytes: %d (%.0f per order)%n",
+                binary ? "binary" : "json", bytesSent, (double) bytesSent / orderCount);
+
+        printStageLatencies(sentAt);
+        printStageTimers(context.getBean(MeterRegistry.class));
+    }
+
+    private void printStageLatencies(Map<String, LocalDateTime> sentAt) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            Map<String, LocalDateTime> storedAt = new HashMap<>();
+            for (Object[] row : entityManager.createQuery(
+                    "SELECT o.orderId, o.createdAt FROM Order o", Object[].class).getResultList()) {
+                storedAt.put((String) row[0], (LocalDateTime) row[1]);
+            }
+
+            Map<OrderOutboxEvent.Type, Map<String, LocalDateTime>> completedAt = new EnumMap<>(OrderOutboxEvent.Type.class);
+            for (Object[] row : entityManager.createQuery(
+                    "SELECT e.orderId, e.type, e.completedAt FROM OrderOutboxEvent e WHERE e.status = :status",
+                    Object[].class)
+                    .setParameter("status", OrderOutboxEvent.Status.DONE)
+                    .getResultList()) {
+                completedAt.computeIfAbsent((OrderOutboxEvent.Type) row[1], type -> new HashMap<>())
+                        .put((String) row[0], (LocalDateTime) row[2]);
+            }
+
+            Map<String, List<Long>> stages = new LinkedHashMap<>();
+            for (Map.Entry<String, LocalDateTime> sent : sentAt.entrySet()) {
+                String orderId = sent.getKey();
+                LocalDateTime stored = storedAt.get(orderId);
+                LocalDateTime pdf = completedAt.getOrDefault(OrderOutboxEvent.Type.GENERATE_PDF, Map.of()).get(orderId);
+                LocalDateTime payment = completedAt.getOrDefault(OrderOutboxEvent.Type.PROCESS_PAYMENT, Map.of()).get(orderId);
+                LocalDateTime email = completedAt.getOrDefault(OrderOutboxEvent.Type.SEND_EMAIL, Map.of()).get(orderId);
+
+                addLatency(stages, "kafka + persist", sent.getValue(), stored);
+                addLatency(stages, "pdf + s3", stored, pdf);
+                addLatency(stages, "payment lambda", stored, payment);
+                addLatency(stages, "email lambda", pdf, email);
+                addLatency(stages, "end to end", sent.getValue(), latest(pdf, payment, email));
+            }
+
+            System.out.printf("%n%-18s %8s %10s %10s %10s %10s%n", "stage (per order)", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            stages.forEach((stage, latencies) -> {
+                long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+                System.out.printf("%-18s %8d %10d %10d %10d %10d%n", stage, sorted.length,
+                        percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+            });
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static void printStageTimers(MeterRegistry meterRegistry) {
+        System.out.printf("%n%-32s %-28s %8s %10s %10s %10s %10s%n", "timer", "tags", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String name : STAGE_TIMERS) {
+            for (Timer timer : meterRegistry.find(name).timers()) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                double[] percentiles = Arrays.stream(snapshot.percentileValues())
+                        .mapToDouble(value -> value.value(TimeUnit.MILLISECONDS))
+                        .toArray();
+                System.out.printf("%-32s %-28s %8d %10.1f %10.1f %10.1f %10.1f%n", name,
+                        timer.getId().getTags().stream().map(Tag::getValue).toList(), snapshot.count(),
+                        valueOrZero(percentiles, 0), valueOrZero(percentiles, 1), valueOrZero(percentiles, 2),
+                        snapshot.max(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    private static void addLatency(Map<String, List<Long>> stages, String stage, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            stages.computeIfAbsent(stage, key -> new ArrayList<>()).add(Duration.between(from, to).toMillis());
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime... times) {
+        LocalDateTime latest = null;
+        for (LocalDateTime time : times) {
+            if (time == null) {
+                return null; // Not every stage finished, so there is no end-to-end figure for this order
+            }
+            if (latest == null || time.isAfter(latest)) {
+                latest = time;
+            }
+        }
+        return latest;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double valueOrZero(double[] values, int index) {
+        return index < values.length ? values[index] : 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.config.SecurityConfig;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.repository.OrderRepository;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// The whole backend, including the Kafka consumer and outbox dispatcher, minus the HTTP security chain
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Order.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+@ComponentScan(basePackages = "com.vehicleordering.backend",
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SecurityConfig.class),
+                @ComponentScan.Filter(type = FilterType.REGEX,
+                        pattern = "com\\.vehicleordering\\.backend\\.benchmark\\..*")
+        })
+public class PipelineHarnessApplication {
+}
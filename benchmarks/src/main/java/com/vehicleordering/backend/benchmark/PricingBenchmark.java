@@ -0,0 +1,79 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicleordering.backend.dto.QuoteRequest;
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.PricingCatalog;
+import com.vehicleordering.backend.service.PricingEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with -prof gc to confirm single quotes do not allocate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PricingBenchmark {
+
+    private static final int BULK_SIZE = 1000;
+
+    private PricingEngine pricingEngine;
+    private Order order;
+    private int[] featureIds;
+    private int modelId;
+    private int wheelId;
+    private List<QuoteRequest> bulk;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pricingEngine = new PricingEngine(new DefaultResourceLoader(), objectMapper, new SimpleMeterRegistry(),
+                "classpath:pricing/catalog.json");
+        order = BenchmarkOrders.sample("ORD-1700000000000-abc123def", 5);
+
+        PricingCatalog catalog = pricingEngine.getCatalog();
+        modelId = catalog.modelId(order.getModel());
+        wheelId = catalog.wheelId(order.getWheels());
+        featureIds = order.getFeatures().stream().mapToInt(catalog::featureId).toArray();
+
+        bulk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            Order sample = BenchmarkOrders.sample("ORD-" + i, i);
+            bulk.add(new QuoteRequest(sample.getModel(), sample.getWheels(), sample.getFeatures()));
+        }
+    }
+
+    @Benchmark
+    public double quoteOrder() {
+        return pricingEngine.quote(order);
+    }
+
+    @Benchmark
+    public long quoteByIds() {
+        return pricingEngine.getCatalog().priceCents(modelId, wheelId, featureIds, featureIds.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public long[] quoteBulk() {
+        return pricingEngine.quoteAllCents(bulk);
+    }
+}
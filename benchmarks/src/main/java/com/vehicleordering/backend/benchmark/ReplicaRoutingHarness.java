@@ -0,0 +1,98 @@
+package com.vehicleordering.backend.benchmark;
+
+import com.vehicleordering.backend.entity.Order;
+import com.vehicleordering.backend.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Replica routing against two in-memory H2 databases. H2 has no replication, so the harness copies the
+// primary onto the replica on demand (SCRIPT / RUNSCRIPT); between copies the replica is stale and its
+// heartbeat ages, which is exactly what the routing has to cope with.
+// Usage: java -cp target/benchmarks.jar com.vehicleordering.backend.benchmark.ReplicaRoutingHarness [orders=200]
+public class ReplicaRoutingHarness {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final long MAX_LAG_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(
+                "orders.datasource.replica.enabled=true",
+                "orders.datasource.replica.urls=" + REPLICA_URL,
+                "orders.datasource.replica.username=sa",
+                "orders.datasource.replica.max-lag=" + MAX_LAG_MILLIS + "ms",
+                "orders.datasource.replica.heartbeat-interval-ms=250",
+                "orders.cache.max-size=0")) {
+
+            OrderService orderService = context.getBean(OrderService.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            JdbcTemplate primary = new JdbcTemplate(context.getBean("primaryDataSource", DataSource.class));
+
+            replicate(primary);
+            TimeUnit.MILLISECONDS.sleep(500); // Let the lag monitor see the replicated heartbeat
+
+            int readBack = 0;
+            for (int i = 0; i < orderCount; i++) {
+                Order order = orderService.createOrder(BenchmarkOrders.sample("REPLICA-" + i, i));
+                if (orderService.getOrderById(order.getOrderId()).isPresent()) {
+                    readBack++;
+                }
+            }
+            report("Created " + orderCount + ", read back immediately (pinned to primary): " + readBack, meterRegistry);
+
+            report("Listing before replication (replica, stale): "
+                    + orderService.getAllOrders(0, 500).items().size(), meterRegistry);
+
+            replicate(primary);
+            TimeUnit.MILLISECONDS.sleep(500);
+            report("Listing after replication (replica): "
+                    + orderService.getAllOrders(0, 500).items().size(), meterRegistry);
+
+            TimeUnit.MILLISECONDS.sleep(MAX_LAG_MILLIS + 1000);
+            report("Listing once the replica lags past max-lag (primary): "
+                    + orderService.getAllOrders(0, 500).items().size(), meterRegistry);
+
+            TimeUnit.MILLISECONDS.sleep(MAX_LAG_MILLIS + 500);
+            report("Read by id once the write window has passed, replica still out of rotation (primary): "
+                    + orderService.getOrderById("REPLICA-0").isPresent(), meterRegistry);
+        }
+    }
+
+    // Replaces the replica's contents with a snapshot of the primary, heartbeat row included
+    private static void replicate(JdbcTemplate primary) throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            primary.execute("SCRIPT TO '" + script + "'");
+            try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static void report(String step, MeterRegistry meterRegistry) {
+        System.out.printf("%n%s%n", step);
+        for (Counter counter : meterRegistry.find("datasource.routing").counters()) {
+            System.out.printf("  routed to %-8s %-18s %6.0f%n", counter.getId().getTag("target"),
+                    counter.getId().getTag("reason"), counter.count());
+        }
+        for (Gauge gauge : meterRegistry.find("datasource.replica.lag").gauges()) {
+            System.out.printf("  %s lag %.2fs%n", gauge.getId().getTag("replica"), gauge.value());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.vehicleordering.backend.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop load test of the blocking order path with platform threads, then with virtual threads.
+// Usage: java -cp target/benchmarks.jar com.vehicleordering.backend.benchmark.VirtualThreadLoadTest
+//        [concurrency=400] [warmupSeconds=10] [durationSeconds=30] [stubLatencyMs=50]
+public class VirtualThreadLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        Duration warmup = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        Duration stubLatency = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 50);
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[] {false, true}) {
+            results.add(run(virtualThreads, concurrency, warmup, duration, stubLatency));
+        }
+
+        System.out.printf("%n%-10s %12s %12s %10s %10s %10s %8s%n",
+                "threads", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12d %12.1f %10.1f %10.1f %10.1f %8d%n",
+                    result.virtualThreads() ? "virtual" : "platform", result.requests(), result.throughput(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0),
+                    result.errors());
+        }
+    }
+
+    private static Result run(boolean virtualThreads, int concurrency, Duration warmup, Duration duration,
+                              Duration stubLatency) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(
+                new Class<?>[] {LoadTestController.class},
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "aws.s3.stub.enabled=true",
+                "aws.s3.stub.latency=" + stubLatency.toMillis() + "ms",
+                "aws.lambda.stub.latency=" + stubLatency.toMillis() + "ms",
+                "aws.lambda.queue-capacity=" + Math.max(1000, concurrency))) {
+
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/load-test/orders");
+
+            // The client always uses virtual threads so it is never the bottleneck being measured
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clients)
+                        .build();
+
+                drive(httpClient, clients, uri, concurrency, warmup);
+                return Result.of(virtualThreads, duration, drive(httpClient, clients, uri, concurrency, duration));
+            }
+        }
+    }
+
+    private static List<Worker> drive(HttpClient httpClient, ExecutorService clients, URI uri, int concurrency,
+                                      Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                Worker worker = new Worker();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        worker.record(System.nanoTime() - start, response.statusCode() == 200);
+                    } catch (Exception e) {
+                        worker.record(System.nanoTime() - start, false);
+                    }
+                }
+                return worker;
+            }));
+        }
+
+        List<Worker> workers = new ArrayList<>(concurrency);
+        for (Future<Worker> future : futures) {
+            workers.add(future.get());
+        }
+        return workers;
+    }
+
+    private static final class Worker {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean success) {
+            if (!success) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+
+    private record Result(boolean virtualThreads, long requests, long errors, double throughput, long[] latencies) {
+
+        static Result of(boolean virtualThreads, Duration duration, List<Worker> workers) {
+            long[] latencies = workers.stream()
+                    .flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.count))
+                    .sorted()
+                    .toArray();
+            long errors = workers.stream().mapToLong(worker -> worker.errors).sum();
+            return new Result(virtualThreads, latencies.length, errors, latencies.length / (duration.toNanos() / 1e9),
+                    latencies);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
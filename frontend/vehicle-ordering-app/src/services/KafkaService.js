@@ -1,4 +1,8 @@
 import { KafkaClient, Producer } from 'kafka-node';
+import { encodeOrderEvent } from './OrderEventCodec';
+
+// 'binary' once every consumer reads the compact encoding; JSON remains the default during the switch-over
+const ORDER_FORMAT = process.env.REACT_APP_KAFKA_ORDER_FORMAT || 'json';
 
 class KafkaServiceClass {
   constructor() {
@@ -48,7 +52,7 @@ class KafkaServiceClass {
 
       const payloads = [{
         topic,
-        messages: JSON.stringify(orderPayload),
+        messages: ORDER_FORMAT === 'binary' ? encodeOrderEvent(orderPayload) : JSON.stringify(orderPayload),
         key: orderPayload.orderId
       }];
 
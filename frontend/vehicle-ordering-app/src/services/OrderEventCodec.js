@@ -0,0 +1,44 @@
+// Binary order event encoding, mirrored by OrderEventCodec on the backend.
+// Layout (version 1): magic 0x00, version 0x01, then orderId, customerName, email, phone, model, color,
+// wheels, specialRequests as strings, then varint (featureCount + 1) followed by the features.
+// A string is varint (byteLength + 1) followed by its UTF-8 bytes; a length of 0 means null.
+const MAGIC = 0x00;
+const VERSION_1 = 0x01;
+
+const STRING_FIELDS = ['orderId', 'customerName', 'email', 'phone', 'model', 'color', 'wheels', 'specialRequests'];
+
+const textEncoder = new TextEncoder();
+
+const writeVarint = (bytes, value) => {
+  while (value > 0x7f) {
+    bytes.push((value & 0x7f) | 0x80);
+    value >>>= 7;
+  }
+  bytes.push(value);
+};
+
+const writeString = (bytes, value) => {
+  if (value === null || value === undefined) {
+    writeVarint(bytes, 0);
+    return;
+  }
+  const encoded = textEncoder.encode(String(value));
+  writeVarint(bytes, encoded.length + 1);
+  for (let i = 0; i < encoded.length; i++) {
+    bytes.push(encoded[i]);
+  }
+};
+
+export const encodeOrderEvent = (orderPayload) => {
+  const bytes = [MAGIC, VERSION_1];
+  STRING_FIELDS.forEach((field) => writeString(bytes, orderPayload[field]));
+
+  const features = orderPayload.features;
+  if (!Array.isArray(features)) {
+    writeVarint(bytes, 0);
+  } else {
+    writeVarint(bytes, features.length + 1);
+    features.forEach((feature) => writeString(bytes, feature));
+  }
+  return Buffer.from(bytes);
+};